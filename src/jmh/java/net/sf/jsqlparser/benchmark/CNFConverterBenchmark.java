@@ -0,0 +1,84 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.update.Update;
+import net.sf.jsqlparser.util.cnfexpression.CNFConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Converts the WHERE conditions of the plain selects, updates and deletes of a corpus into the
+ * conjunctive normal form. One operation is one pass over the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CNFConverterBenchmark {
+
+    @Param({"RUBIS_SELECT", "SIMPLE_PARSING", "MYSQL", "POSTGRESQL", "SQLSERVER", "ORACLE"})
+    public Corpus corpus;
+
+    private final List<Expression> conditions = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (Statement statement : corpus.getStatements()) {
+            Expression where = null;
+            if (statement instanceof PlainSelect) {
+                where = ((PlainSelect) statement).getWhere();
+            } else if (statement instanceof Update) {
+                where = ((Update) statement).getWhere();
+            } else if (statement instanceof Delete) {
+                where = ((Delete) statement).getWhere();
+            }
+            if (where != null && isConvertible(where)) {
+                conditions.add(where);
+            }
+        }
+    }
+
+    private static boolean isConvertible(Expression condition) {
+        try {
+            CNFConverter.convertToCNF(condition);
+            return true;
+        } catch (RuntimeException ex) {
+            // not all expressions are supported by the converter
+            return false;
+        }
+    }
+
+    @Benchmark
+    public void convertToCNF(Blackhole blackhole) {
+        for (Expression condition : conditions) {
+            blackhole.consume(CNFConverter.convertToCNF(condition));
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.util.validation.feature.DatabaseType;
+
+/**
+ * The SQL texts the benchmarks run on, together with the parser configuration and the database
+ * type to validate them for.
+ * <p>
+ * The RUBiS and simple parsing corpora are the test resources, the dialect corpora are kept in
+ * this package. Only the statements, which can be parsed with the configuration of the corpus, are
+ * used, so that all benchmarks work on the same statements.
+ */
+public enum Corpus {
+
+    RUBIS_SELECT("/RUBiS-select-requests.txt", Format.RUBIS, FeatureConfiguration.DEFAULT, DatabaseType.ANSI_SQL),
+
+    RUBIS_CREATE("/RUBiS-create-requests.txt", Format.RUBIS, FeatureConfiguration.DEFAULT, DatabaseType.ANSI_SQL),
+
+    SIMPLE_PARSING("/simple_parsing.txt", Format.BLOCKS, FeatureConfiguration.DEFAULT, DatabaseType.ANSI_SQL),
+
+    MYSQL("mysql.txt", Format.BLOCKS, FeatureConfiguration.MYSQL, DatabaseType.MYSQL),
+
+    POSTGRESQL("postgresql.txt", Format.BLOCKS, FeatureConfiguration.POSTGRESQL, DatabaseType.POSTGRESQL),
+
+    SQLSERVER("sqlserver.txt", Format.BLOCKS, FeatureConfiguration.SQLSERVER, DatabaseType.SQLSERVER),
+
+    ORACLE("oracle.txt", Format.BLOCKS, FeatureConfiguration.DEFAULT, DatabaseType.ORACLE);
+
+    private enum Format {
+        /**
+         * {@code #begin}, the statement, {@code #end} and the validity flag followed by the
+         * expected results
+         */
+        RUBIS,
+
+        /**
+         * statements separated by empty lines
+         */
+        BLOCKS
+    }
+
+    private final String resource;
+
+    private final Format format;
+
+    private final FeatureConfiguration configuration;
+
+    private final DatabaseType databaseType;
+
+    Corpus(String resource, Format format, FeatureConfiguration configuration, DatabaseType databaseType) {
+        this.resource = resource;
+        this.format = format;
+        this.configuration = configuration;
+        this.databaseType = databaseType;
+    }
+
+    /**
+     * @return the immutable configuration to parse the statements with
+     */
+    public FeatureConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public DatabaseType getDatabaseType() {
+        return databaseType;
+    }
+
+    /**
+     * @return the SQL texts of the statements, which can be parsed
+     */
+    public List<String> getSqls() {
+        List<String> sqls = new ArrayList<>();
+        for (String sql : read()) {
+            try {
+                parse(sql);
+                sqls.add(sql);
+            } catch (JSQLParserException ex) {
+                // the corpus contains statements, which are not supported
+            }
+        }
+        return Collections.unmodifiableList(sqls);
+    }
+
+    /**
+     * @return all statements as one script, separated by semicolons
+     */
+    public String getScript() {
+        return String.join(";\n", getSqls());
+    }
+
+    /**
+     * @return the parsed statements
+     */
+    public List<Statement> getStatements() {
+        List<Statement> statements = new ArrayList<>();
+        for (String sql : getSqls()) {
+            try {
+                statements.add(parse(sql));
+            } catch (JSQLParserException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+        return statements;
+    }
+
+    public Statement parse(String sql) throws JSQLParserException {
+        return CCJSqlParserUtil.parse(sql, parser -> parser.withConfiguration(configuration));
+    }
+
+    private List<String> read() {
+        // absolute names refer to the test resources, relative names to this package
+        InputStream stream = Corpus.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new IllegalStateException("The corpus " + resource + " is not on the class path");
+        }
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return format == Format.RUBIS ? readRubis(in) : readBlocks(in);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static List<String> readRubis(BufferedReader in) throws IOException {
+        List<String> sqls = new ArrayList<>();
+        StringBuilder sql = null;
+        boolean expectFlag = false;
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (sql != null) {
+                if ("#end".equals(line)) {
+                    expectFlag = true;
+                } else if (expectFlag) {
+                    if ("true".equals(line)) {
+                        sqls.add(sql.toString());
+                    }
+                    sql = null;
+                    expectFlag = false;
+                } else {
+                    sql.append(sql.length() > 0 ? "\n" : "").append(line);
+                }
+            } else if ("#begin".equals(line)) {
+                sql = new StringBuilder();
+            }
+        }
+        return sqls;
+    }
+
+    private static List<String> readBlocks(BufferedReader in) throws IOException {
+        List<String> sqls = new ArrayList<>();
+        StringBuilder sql = new StringBuilder();
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.trim().isEmpty()) {
+                addBlock(sqls, sql);
+            } else if (!line.startsWith("//")) {
+                sql.append(sql.length() > 0 ? "\n" : "").append(line);
+            }
+        }
+        addBlock(sqls, sql);
+        return sqls;
+    }
+
+    private static void addBlock(List<String> sqls, StringBuilder sql) {
+        if (sql.length() > 0) {
+            sqls.add(sql.toString().trim());
+            sql.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.util.deparser.StatementDeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * De-parses all parsed statements of a corpus with the {@link StatementDeParser}. One operation is
+ * one pass over the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeParserBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    private List<Statement> statements;
+
+    @Setup
+    public void setUp() {
+        statements = corpus.getStatements();
+    }
+
+    @Benchmark
+    public void deParse(Blackhole blackhole) {
+        for (Statement statement : statements) {
+            StringBuilder buffer = new StringBuilder();
+            statement.accept(new StatementDeParser(buffer));
+            blackhole.consume(buffer);
+        }
+    }
+
+    @Benchmark
+    public void toString(Blackhole blackhole) {
+        for (Statement statement : statements) {
+            blackhole.consume(statement.toString());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.benchmark;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import net.sf.jsqlparser.parser.CCJSqlParser;
+import net.sf.jsqlparser.parser.ParseException;
+import net.sf.jsqlparser.parser.StreamProvider;
+import net.sf.jsqlparser.parser.StringProvider;
+import net.sf.jsqlparser.statement.Statement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses a single statement of some megabytes, from a String and from a Reader, for showing that
+ * the time grows linearly with the size: a multi-row INSERT of many short Tokens and an INSERT of
+ * one long string literal, which the character buffers of a Reader must hold at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LargeStatementBenchmark {
+
+    public enum Shape {
+        MULTI_ROW_INSERT, LONG_LITERAL
+    }
+
+    @Param({"1", "2", "4", "8"})
+    public int megabytes;
+
+    @Param
+    public Shape shape;
+
+    private String sql;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("INSERT INTO t (a, b, c) VALUES ");
+        if (shape == Shape.MULTI_ROW_INSERT) {
+            for (int i = 0; builder.length() < megabytes << 20; i++) {
+                builder.append(i == 0 ? "" : ", ").append('(').append(i).append(", 'name ").append(i)
+                        .append("', NULL)");
+            }
+        } else {
+            builder.append("(1, '");
+            while (builder.length() < megabytes << 20) {
+                builder.append("abcdefghijklmnopqrstuvwxyz0123456789\n");
+            }
+            builder.append("', NULL)");
+        }
+        sql = builder.toString();
+    }
+
+    @Benchmark
+    public Statement parseString() throws ParseException {
+        return new CCJSqlParser(new StringProvider(sql)).Statement();
+    }
+
+    @Benchmark
+    public Statement parseReader() throws ParseException {
+        return new CCJSqlParser(new StreamProvider(new StringReader(sql))).Statement();
+    }
+}
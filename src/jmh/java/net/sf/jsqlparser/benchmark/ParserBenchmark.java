@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.parser.ParserPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parses all statements of a corpus, one by one and as a single script, with the parser of the
+ * Thread reused or with a new parser for every text, and one by one with the sub-selects skipped
+ * for parsing them on first access, which never happens here. One operation is one pass over the
+ * corpus. The {@code gc} profiler reports the heap allocated per operation, which shows the savings
+ * of the reused parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    @Param({"true", "false"})
+    public boolean reuseParser;
+
+    private List<String> sqls;
+
+    private String script;
+
+    private boolean poolEnabled;
+
+    @Setup
+    public void setUp() {
+        sqls = corpus.getSqls();
+        script = corpus.getScript();
+        poolEnabled = ParserPool.isEnabled();
+        ParserPool.setEnabled(reuseParser);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ParserPool.setEnabled(poolEnabled);
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) throws JSQLParserException {
+        for (String sql : sqls) {
+            blackhole.consume(
+                    CCJSqlParserUtil.parse(sql, parser -> parser.withConfiguration(corpus.getConfiguration())));
+        }
+    }
+
+    @Benchmark
+    public void parseStatements(Blackhole blackhole) throws JSQLParserException {
+        blackhole.consume(
+                CCJSqlParserUtil.parseStatements(script, parser -> parser.withConfiguration(corpus.getConfiguration())));
+    }
+
+    @Benchmark
+    public void parseLazily(Blackhole blackhole) throws JSQLParserException {
+        for (String sql : sqls) {
+            blackhole.consume(CCJSqlParserUtil.parse(sql,
+                    parser -> parser.withConfiguration(corpus.getConfiguration()).withLazySubqueries(true)));
+        }
+    }
+}
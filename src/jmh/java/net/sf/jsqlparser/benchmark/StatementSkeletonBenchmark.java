@@ -0,0 +1,71 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.StatementSkeleton;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Finds the tables of all statements of a corpus from their text, with a {@link StatementSkeleton}
+ * or with a full parse and the {@link TablesNamesFinder}. One operation is one pass over the
+ * corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementSkeletonBenchmark {
+
+    @Param
+    public Corpus corpus;
+
+    private List<String> sqls;
+
+    @Setup
+    public void setUp() {
+        sqls = corpus.getSqls();
+    }
+
+    @Benchmark
+    public void skeleton(Blackhole blackhole) throws JSQLParserException {
+        for (String sql : sqls) {
+            blackhole.consume(
+                    StatementSkeleton.parse(sql, parser -> parser.withConfiguration(corpus.getConfiguration())));
+        }
+    }
+
+    @Benchmark
+    public void parseAndFindTables(Blackhole blackhole) throws JSQLParserException {
+        for (String sql : sqls) {
+            try {
+                blackhole.consume(new TablesNamesFinder().getTableList(corpus.parse(sql)));
+            } catch (UnsupportedOperationException ex) {
+                // not all statements are supported by the finder
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser;
+
+/**
+ * Wraps a {@link JSQLParserException}, which occurs where no checked exception can be thrown, e.g.
+ * when a sub-select skipped with {@link net.sf.jsqlparser.parser.feature.Feature#lazySubqueries}
+ * is parsed on first access.
+ */
+public class UncheckedJSQLParserException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedJSQLParserException(String message, JSQLParserException cause) {
+        super(message, cause);
+    }
+
+    public UncheckedJSQLParserException(JSQLParserException cause) {
+        super(cause);
+    }
+
+    /**
+     * @return the wrapped exception
+     */
+    @Override
+    public synchronized JSQLParserException getCause() {
+        return (JSQLParserException) super.getCause();
+    }
+}
@@ -25,6 +25,13 @@ public class ExpressionList<T extends Expression> extends ArrayList<T> implement
 
     private transient SimpleNode node;
 
+    // the range of the source text parsed from, kept without the Tokens
+    private transient String source;
+
+    private transient int sourceBegin;
+
+    private transient int sourceEnd;
+
     public ExpressionList(Collection<? extends T> expressions) {
         addAll(expressions);
     }
@@ -107,4 +114,26 @@ public class ExpressionList<T extends Expression> extends ArrayList<T> implement
     public void setASTNode(SimpleNode node) {
         this.node = node;
     }
+
+    @Override
+    public void setSourceSpan(String source, int begin, int end) {
+        this.source = source;
+        this.sourceBegin = begin;
+        this.sourceEnd = end;
+    }
+
+    @Override
+    public int getSourceBegin() {
+        return source != null ? sourceBegin : -1;
+    }
+
+    @Override
+    public int getSourceEnd() {
+        return source != null ? sourceEnd : -1;
+    }
+
+    @Override
+    public String getSourceText() {
+        return source != null ? source.substring(sourceBegin, sourceEnd) : null;
+    }
 }
@@ -16,4 +16,36 @@ public interface ASTNodeAccess extends Serializable {
     SimpleNode getASTNode();
 
     void setASTNode(SimpleNode node);
+
+    /**
+     * Sets the range of the source text this object has been parsed from, which is kept without
+     * the Tokens.
+     *
+     * @param source the whole source text, shared by all the objects parsed from it
+     * @param begin the offset of the first character
+     * @param end the offset after the last character
+     */
+    default void setSourceSpan(String source, int begin, int end) {
+    }
+
+    /**
+     * @return the offset of the first character parsed from, or -1 when unknown
+     */
+    default int getSourceBegin() {
+        return -1;
+    }
+
+    /**
+     * @return the offset after the last character parsed from, or -1 when unknown
+     */
+    default int getSourceEnd() {
+        return -1;
+    }
+
+    /**
+     * @return the original text this object has been parsed from, or NULL when unknown
+     */
+    default String getSourceText() {
+        return null;
+    }
 }
@@ -13,6 +13,13 @@ public class ASTNodeAccessImpl implements ASTNodeAccess {
 
     private transient SimpleNode node;
 
+    // the range of the source text parsed from, kept without the Tokens
+    private transient String source;
+
+    private transient int sourceBegin;
+
+    private transient int sourceEnd;
+
     @Override
     public SimpleNode getASTNode() {
         return node;
@@ -23,6 +30,28 @@ public class ASTNodeAccessImpl implements ASTNodeAccess {
         this.node = node;
     }
 
+    @Override
+    public void setSourceSpan(String source, int begin, int end) {
+        this.source = source;
+        this.sourceBegin = begin;
+        this.sourceEnd = end;
+    }
+
+    @Override
+    public int getSourceBegin() {
+        return source != null ? sourceBegin : -1;
+    }
+
+    @Override
+    public int getSourceEnd() {
+        return source != null ? sourceEnd : -1;
+    }
+
+    @Override
+    public String getSourceText() {
+        return source != null ? source.substring(sourceBegin, sourceEnd) : null;
+    }
+
     public StringBuilder appendTo(StringBuilder builder) {
         SimpleNode simpleNode = getASTNode();
         Token token = simpleNode.jjtGetFirstToken();
@@ -38,22 +38,54 @@ public abstract class AbstractJSqlParser<P> {
         return withFeature(Feature.timeOut, timeOutMillSeconds);
     }
 
+    public P withLazySubqueries(boolean lazySubqueries) {
+        return withFeature(Feature.lazySubqueries, lazySubqueries);
+    }
+
+    public P withLinkASTNodes(boolean linkASTNodes) {
+        return withFeature(Feature.linkASTNodes, linkASTNodes);
+    }
+
     public P withBackslashEscapeCharacter(boolean allowBackslashEscapeCharacter) {
         return withFeature(Feature.allowBackslashEscapeCharacter, allowBackslashEscapeCharacter);
     }
 
     public P withFeature(Feature f, boolean enabled) {
-        getConfiguration().setValue(f, enabled);
+        getMutableConfiguration().setValue(f, enabled);
         return me();
     }
 
     public P withFeature(Feature f, long value) {
-        getConfiguration().setValue(f, value);
+        getMutableConfiguration().setValue(f, value);
         return me();
     }
 
+    /**
+     * @return the configuration, after copying it if it is an immutable (shared) one
+     */
+    private FeatureConfiguration getMutableConfiguration() {
+        FeatureConfiguration configuration = getConfiguration();
+        if (configuration.isImmutable()) {
+            configuration = new FeatureConfiguration(configuration);
+            withConfiguration(configuration);
+        }
+        return configuration;
+    }
+
     public abstract FeatureConfiguration getConfiguration();
 
+    /**
+     * Replaces the configuration of this parser. Parsers able to reference a shared (immutable)
+     * configuration override this, the default copies the values into the current one.
+     *
+     * @param configuration the configuration to use
+     * @return this parser
+     */
+    public P withConfiguration(FeatureConfiguration configuration) {
+        getConfiguration().setValues(configuration);
+        return me();
+    }
+
     public abstract P me();
 
     public boolean getAsBoolean(Feature f) {
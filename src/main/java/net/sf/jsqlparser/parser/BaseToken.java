@@ -14,4 +14,10 @@ public class BaseToken {
     public int absoluteBegin = 0;
 
     public int absoluteEnd = 0;
+
+    /**
+     * The syntactic lookaheads, which have failed starting at this Token, as bit set of the
+     * memoized lookaheads of the parser.
+     */
+    public int failedLookaheads = 0;
 }
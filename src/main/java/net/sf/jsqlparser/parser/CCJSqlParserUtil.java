@@ -9,18 +9,26 @@
  */
 package net.sf.jsqlparser.parser;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Spliterator;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import net.sf.jsqlparser.JSQLParserException;
 import net.sf.jsqlparser.expression.Expression;
 import net.sf.jsqlparser.parser.feature.Feature;
@@ -41,21 +49,36 @@ public final class CCJSqlParserUtil {
         LOGGER.setLevel(Level.OFF);
     }
 
-    public final static int ALLOWED_NESTING_DEPTH = 10;
+    /**
+     * The maximum nesting depth of brackets, up to which COMPLEX parsing is tried. Since the failed
+     * lookaheads are memoized, the parsing time grows about linearly with the nesting depth.
+     */
+    public final static int ALLOWED_NESTING_DEPTH = 50;
+
+    private static volatile ParseStrategyCache parseStrategyCache = new ParseStrategyCache();
 
     private CCJSqlParserUtil() {
     }
 
+    /**
+     * @return the cache of statement shapes, which need COMPLEX parsing, or <code>null</code> if
+     *         disabled
+     */
+    public static ParseStrategyCache getParseStrategyCache() {
+        return parseStrategyCache;
+    }
+
+    /**
+     * @param cache the cache of statement shapes, which need COMPLEX parsing, or <code>null</code>
+     *        to always try SIMPLE parsing first
+     */
+    public static void setParseStrategyCache(ParseStrategyCache cache) {
+        parseStrategyCache = cache;
+    }
+
     public static Statement parse(Reader statementReader) throws JSQLParserException {
-        ExecutorService executorService = Executors.newSingleThreadExecutor();
-        Statement statement = null;
         CCJSqlParser parser = new CCJSqlParser(new StreamProvider(statementReader));
-        try {
-            statement = parseStatement(parser, executorService);
-        } finally {
-            executorService.shutdown();
-        }
-        return statement;
+        return parseStatement(parser, ParserExecutor.getDefault());
     }
 
     public static Statement parse(String sql) throws JSQLParserException {
@@ -77,45 +100,82 @@ public final class CCJSqlParserUtil {
      * @throws JSQLParserException
      */
     public static Statement parse(String sql, Consumer<CCJSqlParser> consumer) throws JSQLParserException {
-        ExecutorService executorService = Executors.newSingleThreadExecutor();
-        Statement statement = null;
-        try {
-            statement = parse(sql, executorService, consumer);
-        } finally {
-            executorService.shutdown();
-        }
-        return statement;
+        return parse(sql, ParserExecutor.getDefault(), consumer);
     }
 
     public static Statement parse(String sql, ExecutorService executorService, Consumer<CCJSqlParser> consumer) throws JSQLParserException {
+        return parse(sql, executorService, consumer, parseStrategyCache);
+    }
+
+    /**
+     * @param cache the cache of statement shapes, which need COMPLEX parsing, or <code>null</code>
+     *        to always try SIMPLE parsing first
+     */
+    static Statement parse(String sql, ExecutorService executorService, Consumer<CCJSqlParser> consumer,
+            ParseStrategyCache cache) throws JSQLParserException {
         Statement statement = null;
         // first, try to parse fast and simple
-        CCJSqlParser parser = newParser(sql);
-        if (consumer != null) {
-            consumer.accept(parser);
-        }
-        boolean allowComplex = parser.getConfiguration().getAsBoolean(Feature.allowComplexParsing);
-        LOGGER.info("Allowed Complex Parsing: " + allowComplex);
+        CCJSqlParser parser = acquireParser(sql, consumer);
         try {
-            LOGGER.info("Trying SIMPLE parsing " + (allowComplex ? "first" : "only"));
-            statement = parseStatement(parser.withAllowComplexParsing(false), executorService);
-        } catch (JSQLParserException ex) {
-            LOGGER.info("Nesting Depth" + getNestingDepth(sql));
-            if (allowComplex && getNestingDepth(sql) <= ALLOWED_NESTING_DEPTH) {
-                LOGGER.info("Trying COMPLEX parsing when SIMPLE parsing failed");
-                // beware: the parser must not be reused, but needs to be re-initiated
-                parser = newParser(sql);
-                if (consumer != null) {
-                    consumer.accept(parser);
+            boolean allowComplex = parser.getConfiguration().getAsBoolean(Feature.allowComplexParsing);
+            LOGGER.info("Allowed Complex Parsing: " + allowComplex);
+            ParseStrategyCache strategyCache = allowComplex ? cache : null;
+            long fingerprint = strategyCache != null ? ParseStrategyCache.fingerprint(sql, parser.getConfiguration()) : 0;
+            if (strategyCache != null && strategyCache.needsComplexParsing(fingerprint)) {
+                LOGGER.info("Trying COMPLEX parsing only, as SIMPLE parsing failed for this shape before");
+                strategyCache.recordAvoidedDoubleParse();
+                return parseStatement(parser.withAllowComplexParsing(true), executorService);
+            }
+            try {
+                LOGGER.info("Trying SIMPLE parsing " + (allowComplex ? "first" : "only"));
+                statement = parseStatement(parser.withAllowComplexParsing(false), executorService);
+            } catch (JSQLParserException ex) {
+                SqlPreScanner scan = SqlPreScanner.of(sql);
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.fine("Nesting Depth " + scan.getNestingDepth() + ", Statement Kind " + scan.getStatementKind()
+                            + ", Square Brackets " + scan.hasSquareBrackets() + ", Backslash Escapes "
+                            + scan.hasBackslashEscapes());
+                }
+                if (allowComplex && scan.getNestingDepth() <= ALLOWED_NESTING_DEPTH) {
+                    LOGGER.info("Trying COMPLEX parsing when SIMPLE parsing failed");
+                    // beware: the parser must not be reused, but needs to be re-initiated
+                    recycleParser(parser, ex);
+                    parser = acquireParser(sql, consumer);
+                    if (strategyCache != null) {
+                        strategyCache.recordDoubleParse();
+                    }
+                    statement = parseStatement(parser.withAllowComplexParsing(true), executorService);
+                    if (strategyCache != null) {
+                        strategyCache.learnComplexParsing(fingerprint);
+                    }
+                } else {
+                    throw ex;
                 }
-                statement = parseStatement(parser.withAllowComplexParsing(true), executorService);
-            } else {
-                throw ex;
             }
+        } catch (JSQLParserException ex) {
+            recycleParser(parser, ex);
+            throw ex;
+        } finally {
+            ParserPool.release(parser);
         }
         return statement;
     }
 
+    /**
+     * @param sql the text of a single statement
+     * @return the kind of the statement and the referenced tables, recognised without a full parse
+     *         when possible
+     * @throws JSQLParserException when the statement had to be parsed fully and is invalid
+     * @see StatementSkeleton
+     */
+    public static StatementSkeleton parseSkeleton(String sql) throws JSQLParserException {
+        return StatementSkeleton.parse(sql);
+    }
+
+    public static StatementSkeleton parseSkeleton(String sql, Consumer<CCJSqlParser> consumer) throws JSQLParserException {
+        return StatementSkeleton.parse(sql, consumer);
+    }
+
     public static CCJSqlParser newParser(String sql) {
         return new CCJSqlParser(new StringProvider(sql));
     }
@@ -269,29 +329,55 @@ public final class CCJSqlParserUtil {
     }
 
     /**
+     * Parses a single Statement on the calling Thread. The configured timeout is enforced
+     * cooperatively: the token manager checks a deadline while scanning and the parser gives up
+     * as soon as it has passed, so no additional Thread is needed.
+     *
      * @param parser the Parser armed with a Statement text
-     * @param executorService the Executor Service for parsing within a Thread
+     * @return the parsed Statement
+     * @throws JSQLParserException when either the Statement can't be parsed or the configured
+     *         timeout is reached
+     */
+    public static Statement parseStatement(CCJSqlParser parser) throws JSQLParserException {
+        armDeadline(parser);
+        try {
+            return parser.Statement();
+        } catch (Exception ex) {
+            throw toJSQLParserException(parser, ex);
+        }
+    }
+
+    /**
+     * @param parser the Parser armed with a Statement text
+     * @param executorService the Executor Service for parsing within a Thread, or {@code null} for
+     *        parsing on the calling Thread with a cooperative timeout
      * @return the parsed Statement
      * @throws JSQLParserException when either the Statement can't be parsed or the configured
      *         timeout is reached
      */
     public static Statement parseStatement(CCJSqlParser parser, ExecutorService executorService) throws JSQLParserException {
+        if (executorService == null) {
+            return parseStatement(parser);
+        }
         Statement statement = null;
-        Future<Statement> future = executorService.submit(new Callable<Statement>() {
-
-            @Override
-            public Statement call() throws ParseException {
-                return parser.Statement();
-            }
-        });
+        Future<Statement> future = null;
+        // the worker stops by itself once the deadline has passed, even when nobody waits for it
+        armDeadline(parser);
         try {
+            future = executorService.submit(new Callable<Statement>() {
+
+                @Override
+                public Statement call() throws ParseException {
+                    return parser.Statement();
+                }
+            });
             statement = future.get(parser.getConfiguration().getAsLong(Feature.timeOut), TimeUnit.MILLISECONDS);
         } catch (TimeoutException ex) {
             parser.interrupted = true;
             future.cancel(true);
             throw new JSQLParserException("Time out occurred.", ex);
         } catch (Exception ex) {
-            throw new JSQLParserException(ex);
+            throw toJSQLParserException(parser, ex);
         }
         return statement;
     }
@@ -306,10 +392,7 @@ public final class CCJSqlParserUtil {
     }
 
     public static Statements parseStatements(String sqls, Consumer<CCJSqlParser> consumer) throws JSQLParserException {
-        ExecutorService executorService = Executors.newSingleThreadExecutor();
-        final Statements statements = parseStatements(sqls, executorService, consumer);
-        executorService.shutdown();
-        return statements;
+        return parseStatements(sqls, ParserExecutor.getDefault(), consumer);
     }
 
     /**
@@ -318,58 +401,185 @@ public final class CCJSqlParserUtil {
      * @return the statements parsed
      */
     public static Statements parseStatements(String sqls, ExecutorService executorService, Consumer<CCJSqlParser> consumer) throws JSQLParserException {
+        return parseStatements(sqls, executorService, consumer, parseStrategyCache);
+    }
+
+    /**
+     * @param cache the cache of statement shapes, which need COMPLEX parsing, or <code>null</code>
+     *        to always try SIMPLE parsing first
+     */
+    static Statements parseStatements(String sqls, ExecutorService executorService, Consumer<CCJSqlParser> consumer,
+            ParseStrategyCache cache) throws JSQLParserException {
+        return parseStatements(sqls, executorService, consumer, cache, false);
+    }
+
+    /**
+     * Like {@link #parseStatements(String, Consumer)}, but throws the error of SIMPLE parsing instead
+     * of returning <code>null</code>, when COMPLEX parsing is not tried.
+     */
+    static Statements parseStatementsOrFail(String sqls, Consumer<CCJSqlParser> consumer) throws JSQLParserException {
+        return parseStatements(sqls, null, consumer, parseStrategyCache, true);
+    }
+
+    private static Statements parseStatements(String sqls, ExecutorService executorService,
+            Consumer<CCJSqlParser> consumer, ParseStrategyCache cache, boolean failWithoutRetry)
+            throws JSQLParserException {
         Statements statements = null;
-        CCJSqlParser parser = newParser(sqls);
-        if (consumer != null) {
-            consumer.accept(parser);
-        }
-        boolean allowComplex = parser.getConfiguration().getAsBoolean(Feature.allowComplexParsing);
-        // first, try to parse fast and simple
+        CCJSqlParser parser = acquireParser(sqls, consumer);
         try {
-            statements = parseStatements(parser.withAllowComplexParsing(false), executorService);
-        } catch (JSQLParserException ex) {
-            // when fast simple parsing fails, try complex parsing but only if it has a chance to
-            // succeed
-            if (allowComplex && getNestingDepth(sqls) <= ALLOWED_NESTING_DEPTH) {
-                // beware: parser must not be re-used but needs to be re-initiated
-                parser = newParser(sqls);
-                if (consumer != null) {
-                    consumer.accept(parser);
+            boolean allowComplex = parser.getConfiguration().getAsBoolean(Feature.allowComplexParsing);
+            ParseStrategyCache strategyCache = allowComplex ? cache : null;
+            long fingerprint = strategyCache != null ? ParseStrategyCache.fingerprint(sqls, parser.getConfiguration()) : 0;
+            if (strategyCache != null && strategyCache.needsComplexParsing(fingerprint)) {
+                strategyCache.recordAvoidedDoubleParse();
+                return parseStatements(parser.withAllowComplexParsing(true), executorService);
+            }
+            // first, try to parse fast and simple
+            try {
+                statements = parseStatements(parser.withAllowComplexParsing(false), executorService);
+            } catch (JSQLParserException ex) {
+                // when fast simple parsing fails, try complex parsing but only if it has a chance to
+                // succeed
+                if (allowComplex && getNestingDepth(sqls) <= ALLOWED_NESTING_DEPTH) {
+                    // beware: parser must not be re-used but needs to be re-initiated
+                    recycleParser(parser, ex);
+                    parser = acquireParser(sqls, consumer);
+                    if (strategyCache != null) {
+                        strategyCache.recordDoubleParse();
+                    }
+                    statements = parseStatements(parser.withAllowComplexParsing(true), executorService);
+                    if (strategyCache != null) {
+                        strategyCache.learnComplexParsing(fingerprint);
+                    }
+                } else if (failWithoutRetry) {
+                    throw ex;
+                } else {
+                    recycleParser(parser, ex);
                 }
-                statements = parseStatements(parser.withAllowComplexParsing(true), executorService);
             }
+        } catch (JSQLParserException ex) {
+            recycleParser(parser, ex);
+            throw ex;
+        } finally {
+            ParserPool.release(parser);
         }
         return statements;
     }
 
+    private static CCJSqlParser acquireParser(String sql, Consumer<CCJSqlParser> consumer) {
+        CCJSqlParser parser = ParserPool.acquire(sql);
+        if (consumer != null) {
+            consumer.accept(parser);
+        }
+        return parser;
+    }
+
+    /**
+     * Returns a parser, which failed, to the pool unless a timed out worker Thread may still use it.
+     */
+    private static void recycleParser(CCJSqlParser parser, JSQLParserException ex) {
+        if (ex.getCause() instanceof TimeoutException) {
+            ParserPool.discard(parser);
+        } else {
+            ParserPool.release(parser);
+        }
+    }
+
+    /**
+     * Parses the statements of a script in parallel on the common {@link ForkJoinPool}.
+     *
+     * @param sqls the script
+     * @return the statements in the order of the script
+     * @see #parseStatementsParallel(String, ForkJoinPool, Consumer)
+     */
+    public static ParsedStatements parseStatementsParallel(String sqls) {
+        return parseStatementsParallel(sqls, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Parses the statements of a script in parallel. The script is split at its top level statement
+     * boundaries (see {@link StatementSplitter}) and each statement is parsed on its own, so a
+     * statement which can't be parsed does not affect the others. The result holds the parsed
+     * statements in the order of the script and tells the offsets of each statement within the
+     * script and the error of each statement, which could not be parsed.
+     *
+     * @param sqls the script
+     * @param pool the pool to parse on
+     * @param consumer configures the parser of each statement, may be called concurrently
+     * @return the statements in the order of the script
+     */
+    public static ParsedStatements parseStatementsParallel(String sqls, ForkJoinPool pool, Consumer<CCJSqlParser> consumer) {
+        return ParallelStatementsParser.parse(sqls, pool, consumer);
+    }
+
+    /**
+     * Parses a Statement list on the calling Thread, enforcing the configured timeout
+     * cooperatively like {@link #parseStatement(CCJSqlParser)}.
+     *
+     * @param parser the Parser armed with a Statement text
+     * @return the Statements (representing a List of single statements)
+     * @throws JSQLParserException when either the Statement can't be parsed or the configured
+     *         timeout is reached
+     */
+    public static Statements parseStatements(CCJSqlParser parser) throws JSQLParserException {
+        armDeadline(parser);
+        try {
+            return parser.Statements();
+        } catch (Exception ex) {
+            throw toJSQLParserException(parser, ex);
+        }
+    }
+
     /**
      * @param parser the Parser armed with a Statement text
-     * @param executorService the Executor Service for parsing within a Thread
+     * @param executorService the Executor Service for parsing within a Thread, or {@code null} for
+     *        parsing on the calling Thread with a cooperative timeout
      * @return the Statements (representing a List of single statements)
      * @throws JSQLParserException when either the Statement can't be parsed or the configured
      *         timeout is reached
      */
     public static Statements parseStatements(CCJSqlParser parser, ExecutorService executorService) throws JSQLParserException {
+        if (executorService == null) {
+            return parseStatements(parser);
+        }
         Statements statements = null;
-        Future<Statements> future = executorService.submit(new Callable<Statements>() {
-
-            @Override
-            public Statements call() throws ParseException {
-                return parser.Statements();
-            }
-        });
+        Future<Statements> future = null;
+        // the worker stops by itself once the deadline has passed, even when nobody waits for it
+        armDeadline(parser);
         try {
+            future = executorService.submit(new Callable<Statements>() {
+
+                @Override
+                public Statements call() throws ParseException {
+                    return parser.Statements();
+                }
+            });
             statements = future.get(parser.getConfiguration().getAsLong(Feature.timeOut), TimeUnit.MILLISECONDS);
         } catch (TimeoutException ex) {
             parser.interrupted = true;
             future.cancel(true);
             throw new JSQLParserException("Time out occurred.", ex);
         } catch (Exception ex) {
-            throw new JSQLParserException(ex);
+            throw toJSQLParserException(parser, ex);
         }
         return statements;
     }
 
+    private static void armDeadline(CCJSqlParser parser) {
+        long timeOut = parser.getConfiguration().getAsLong(Feature.timeOut);
+        parser.withDeadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeOut));
+    }
+
+    private static JSQLParserException toJSQLParserException(CCJSqlParser parser, Exception ex) {
+        if (parser.interrupted || parser.token_source.hasDeadlinePassed()) {
+            TimeoutException timeoutException = new TimeoutException(
+                    "Parsing exceeded " + parser.getConfiguration().getAsLong(Feature.timeOut) + " ms");
+            timeoutException.initCause(ex);
+            return new JSQLParserException("Time out occurred.", timeoutException);
+        }
+        return new JSQLParserException(ex);
+    }
+
     public static void streamStatements(StatementListener listener, InputStream is, String encoding) throws JSQLParserException {
         try {
             CCJSqlParser parser = newParser(is, encoding);
@@ -388,24 +598,72 @@ public final class CCJSqlParserUtil {
         }
     }
 
-    public static int getNestingDepth(String sql) {
-        int maxlevel = 0;
-        int level = 0;
-        char[] chars = sql.toCharArray();
-        for (char c : chars) {
-            switch(c) {
-                case '(':
-                    level++;
-                    break;
-                case ')':
-                    if (maxlevel < level) {
-                        maxlevel = level;
-                    }
-                    level--;
-                    break;
-                default:
+    /**
+     * Streams the statements of a script lazily, one statement at a time and in constant memory. A
+     * statement which can't be parsed is streamed with its error and does not end the stream. The
+     * stream must be closed, unless it has been consumed completely.
+     *
+     * @param reader the script
+     * @param consumer configures the parser of each statement, may be {@code null}
+     * @return the statements in the order of the script
+     * @see StatementSpliterator
+     */
+    public static Stream<ParsedStatement> streamStatements(Reader reader, Consumer<CCJSqlParser> consumer) {
+        return toStream(new StatementSpliterator(reader, consumer));
+    }
+
+    public static Stream<ParsedStatement> streamStatements(InputStream is, String encoding, Consumer<CCJSqlParser> consumer) {
+        return streamStatements(new InputStreamReader(is, Charset.forName(encoding)), consumer);
+    }
+
+    /**
+     * Streams the statements of a script file lazily like {@link #streamStatements(Reader, Consumer)}.
+     * The stream can be parallel, if the file is encoded in UTF-8, US-ASCII or ISO-8859-1.
+     *
+     * @param path the script file
+     * @param charset the encoding of the script
+     * @param consumer configures the parser of each statement, may be called concurrently
+     * @return the statements in the order of the script
+     * @throws IOException when the file can't be accessed
+     */
+    public static Stream<ParsedStatement> streamStatements(Path path, Charset charset, Consumer<CCJSqlParser> consumer) throws IOException {
+        return toStream(new StatementSpliterator(path, charset, consumer));
+    }
+
+    /**
+     * Streams the statements of a large script file like
+     * {@link #streamStatements(Path, Charset, Consumer)}, but reads the file through a memory mapped
+     * window and splits it at byte level. The statements hold their offsets in bytes, too.
+     *
+     * @param path the script file
+     * @param charset the encoding of the script, UTF-8, US-ASCII or ISO-8859-1
+     * @param consumer configures the parser of each statement, may be {@code null}
+     * @return the statements in the order of the script
+     * @throws IOException when the file can't be accessed
+     * @see MappedStatementSpliterator
+     */
+    public static Stream<ParsedStatement> streamMappedStatements(Path path, Charset charset,
+            Consumer<CCJSqlParser> consumer) throws IOException {
+        return toStream(new MappedStatementSpliterator(path, charset, consumer));
+    }
+
+    private static <S extends Spliterator<ParsedStatement> & Closeable> Stream<ParsedStatement> toStream(
+            S spliterator) {
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                spliterator.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
             }
-        }
-        return maxlevel;
+        });
+    }
+
+    /**
+     * @param sql the SQL text
+     * @return the maximum depth of nested parentheses, ignoring those in literals and comments
+     * @see SqlPreScanner
+     */
+    public static int getNestingDepth(String sql) {
+        return SqlPreScanner.of(sql).getNestingDepth();
     }
 }
@@ -0,0 +1,79 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A thread-safe {@link IdentifierInterner} for sharing it by the parsers of a long running
+ * application, bounded by the number of identifiers and by their length. When it is full, it is
+ * cleared, so that it follows a changing set of names instead of keeping the first ones forever.
+ * Identifiers longer than the maximum length are not interned.
+ *
+ * <pre>{@code
+ * IdentifierInterner interner = new ConcurrentIdentifierInterner();
+ * Statement statement = CCJSqlParserUtil.parse(sql, parser -> parser.withIdentifierInterner(interner));
+ * }</pre>
+ */
+public class ConcurrentIdentifierInterner implements IdentifierInterner {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    public static final int DEFAULT_MAXIMUM_LENGTH = 128;
+
+    private final ConcurrentHashMap<String, String> identifiers = new ConcurrentHashMap<>();
+
+    private final int maximumSize;
+
+    private final int maximumLength;
+
+    public ConcurrentIdentifierInterner() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_LENGTH);
+    }
+
+    /**
+     * @param maximumSize the maximum number of identifiers kept
+     * @param maximumLength the maximum length of an identifier kept
+     */
+    public ConcurrentIdentifierInterner(int maximumSize, int maximumLength) {
+        if (maximumSize < 1 || maximumLength < 1) {
+            throw new IllegalArgumentException("The maximum size and length must be positive.");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumLength = maximumLength;
+    }
+
+    @Override
+    public String intern(String identifier) {
+        if (identifier == null || identifier.length() > maximumLength) {
+            return identifier;
+        }
+        String interned = identifiers.get(identifier);
+        if (interned != null) {
+            return interned;
+        }
+        if (identifiers.size() >= maximumSize) {
+            identifiers.clear();
+        }
+        interned = identifiers.putIfAbsent(identifier, identifier);
+        return interned != null ? interned : identifier;
+    }
+
+    /**
+     * @return the number of identifiers kept
+     */
+    public int size() {
+        return identifiers.size();
+    }
+
+    public void clear() {
+        identifiers.clear();
+    }
+}
@@ -0,0 +1,34 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+/**
+ * Maps the identifiers of the parsed names, e.g. of a {@link net.sf.jsqlparser.schema.Table},
+ * {@link net.sf.jsqlparser.schema.Column}, {@link net.sf.jsqlparser.expression.Alias} or
+ * {@link net.sf.jsqlparser.expression.Function}, to a canonical instance, so that the statements
+ * parsed by {@link CCJSqlParser#withIdentifierInterner(IdentifierInterner)} share equal names.
+ * Implementations must be thread-safe, when shared by the parsers of several Threads.
+ *
+ * @see ConcurrentIdentifierInterner
+ */
+@FunctionalInterface
+public interface IdentifierInterner {
+
+    /**
+     * Keeps the identifiers as parsed.
+     */
+    IdentifierInterner NONE = identifier -> identifier;
+
+    /**
+     * @param identifier the identifier as parsed, may be NULL
+     * @return an equal identifier, possibly one returned before
+     */
+    String intern(String identifier);
+}
@@ -0,0 +1,233 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+
+/**
+ * Parses a script pushed in chunks of any size, for example as it is received from the network.
+ * Each statement is parsed and handed to the listener as soon as its delimiter has been fed, so
+ * parsing overlaps with receiving the rest of the script.
+ * <p>
+ * The chunks are scanned for statement boundaries by a {@link StatementSplitter} exactly once: the
+ * text of a partially received statement stays buffered and scanning resumes after it with the next
+ * chunk. Bytes are decoded incrementally, a character split between two chunks is completed with
+ * the next one. A statement which can't be parsed is handed to the listener with its error like by
+ * a {@link StatementSpliterator}, the offsets of the statements are in characters from the start of
+ * the script.
+ * <p>
+ * An instance is not thread safe. It can be reused for the next script after {@link #finish()}.
+ * The buffers are flipped and cleared through {@link Buffer}, so that code compiled on a newer JDK
+ * still runs on Java 8.
+ *
+ * <pre>{@code
+ * IncrementalStatementParser parser = new IncrementalStatementParser(StandardCharsets.UTF_8, null,
+ *         parsed -> forward(parsed.getStatement()));
+ * while (channel.read(buffer) >= 0) {
+ *     ((Buffer) buffer).flip();
+ *     parser.feed(buffer);
+ *     ((Buffer) buffer).clear();
+ * }
+ * parser.finish();
+ * }</pre>
+ */
+public class IncrementalStatementParser {
+
+    private static final int DECODE_BUFFER_SIZE = 8192;
+
+    // more than the bytes of any incomplete character
+    private static final int LEFTOVER_SIZE = 16;
+
+    private final Consumer<CCJSqlParser> consumer;
+
+    private final Consumer<? super ParsedStatement> listener;
+
+    private final CharsetDecoder decoder;
+
+    private CharBuffer decoded;
+
+    // the bytes of an incomplete character at the end of the last chunk
+    private final ByteBuffer leftover;
+
+    // the dialect of the script, null for the default dialect
+    private final FeatureConfiguration configuration;
+
+    private StatementSplitter splitter;
+
+    private final StringBuilder text = new StringBuilder();
+
+    // the offset of the first buffered character within the script
+    private long offset;
+
+    // the offset of the first character of the incomplete statement within the script
+    private long statementStart;
+
+    // the index of the next buffered character to scan
+    private int scanned;
+
+    /**
+     * Creates a parser for chunks of UTF-8 encoded bytes or chunks of characters.
+     *
+     * @param consumer configures the parser of each statement, may be {@code null}
+     * @param listener receives the statements in the order of the script
+     */
+    public IncrementalStatementParser(Consumer<CCJSqlParser> consumer, Consumer<? super ParsedStatement> listener) {
+        this(StandardCharsets.UTF_8, consumer, listener);
+    }
+
+    /**
+     * @param charset the encoding of the chunks of bytes
+     * @param consumer configures the parser of each statement, may be {@code null}
+     * @param listener receives the statements in the order of the script
+     */
+    public IncrementalStatementParser(Charset charset, Consumer<CCJSqlParser> consumer,
+            Consumer<? super ParsedStatement> listener) {
+        this.consumer = consumer;
+        this.listener = listener;
+        this.configuration = StatementSplitter.configurationOf(consumer);
+        this.splitter = StatementSplitter.of(configuration);
+        this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.leftover = ByteBuffer.allocate(LEFTOVER_SIZE);
+    }
+
+    /**
+     * Feeds the next chunk of the script and parses the statements it completes.
+     *
+     * @param chars the next characters of the script
+     * @return this parser
+     */
+    public IncrementalStatementParser feed(CharSequence chars) {
+        text.append(chars);
+        scan();
+        return this;
+    }
+
+    /**
+     * Feeds the next chunk of the script and parses the statements it completes.
+     *
+     * @param chars the next characters of the script, which are consumed completely
+     * @return this parser
+     */
+    public IncrementalStatementParser feed(CharBuffer chars) {
+        text.append(chars);
+        ((Buffer) chars).position(chars.limit());
+        scan();
+        return this;
+    }
+
+    /**
+     * Feeds the next chunk of the script and parses the statements it completes.
+     *
+     * @param bytes the next bytes of the script, which are consumed completely
+     * @return this parser
+     */
+    public IncrementalStatementParser feed(ByteBuffer bytes) {
+        // complete a character split between the last chunk and this one
+        while (leftover.position() > 0 && bytes.hasRemaining()) {
+            leftover.put(bytes.get());
+            ((Buffer) leftover).flip();
+            decode(leftover, false);
+            leftover.compact();
+        }
+        decode(bytes, false);
+        leftover.put(bytes);
+        scan();
+        return this;
+    }
+
+    /**
+     * Ends the script, parses its last statement even without a delimiter and resets this parser
+     * for the next script.
+     */
+    public void finish() {
+        ((Buffer) leftover).flip();
+        decode(leftover, true);
+        ((Buffer) leftover).clear();
+        decoder.flush(decodeBuffer());
+        appendDecoded();
+        decoder.reset();
+        scan();
+        if (splitter.finish()) {
+            emit();
+        }
+        text.setLength(0);
+        offset = 0;
+        statementStart = 0;
+        scanned = 0;
+        splitter = StatementSplitter.of(configuration);
+    }
+
+    /**
+     * @return the number of characters buffered for the statement not yet complete
+     */
+    public int getBufferedLength() {
+        return text.length();
+    }
+
+    private void decode(ByteBuffer bytes, boolean endOfInput) {
+        CoderResult result;
+        do {
+            result = decoder.decode(bytes, decodeBuffer(), endOfInput);
+            appendDecoded();
+        } while (result.isOverflow());
+    }
+
+    private CharBuffer decodeBuffer() {
+        if (decoded == null) {
+            decoded = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+        }
+        return decoded;
+    }
+
+    private void appendDecoded() {
+        ((Buffer) decoded).flip();
+        text.append(decoded);
+        ((Buffer) decoded).clear();
+    }
+
+    private void scan() {
+        int end;
+        while ((end = splitter.findEnd(text, scanned, text.length())) >= 0) {
+            scanned = end;
+            emit();
+        }
+        scanned = text.length();
+        // drop the complete statements at once, which leaves only the incomplete one
+        int start = (int) (statementStart - offset);
+        if (start > 0) {
+            text.delete(0, start);
+            offset = statementStart;
+            scanned -= start;
+        }
+    }
+
+    private void emit() {
+        int end = (int) (splitter.getStatementEnd() - offset);
+        int begin = StatementSplitter.trimBegin(text, (int) (splitter.getStatementBegin() - offset), end);
+        end = StatementSplitter.trimEnd(text, begin, end);
+        if (begin < end) {
+            for (ParsedStatement parsed : ParsedStatement.parse(text.substring(begin, end),
+                    offset + begin, offset + end, consumer)) {
+                listener.accept(parsed);
+            }
+        }
+        statementStart = splitter.getPosition();
+    }
+}
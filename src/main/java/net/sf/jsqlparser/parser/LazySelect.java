@@ -0,0 +1,88 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.Serializable;
+import java.util.function.Supplier;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.UncheckedJSQLParserException;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import net.sf.jsqlparser.statement.select.Select;
+
+/**
+ * The body of a parenthesed select skipped by a parser with
+ * {@link net.sf.jsqlparser.parser.feature.Feature#lazySubqueries}, which is parsed on first access
+ * from its range of the source text with the configuration and the identifier interner of the
+ * skipping parser. Its nested
+ * sub-selects are skipped again.
+ * <p>
+ * The positions of the tokens of the body refer to the body and not to the whole source text. A
+ * serialized instance keeps the body unparsed, but not the identifier interner.
+ */
+final class LazySelect implements Supplier<Select>, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String source;
+
+    private final int begin;
+
+    private final int end;
+
+    private final FeatureConfiguration configuration;
+
+    private final transient IdentifierInterner identifierInterner;
+
+    /**
+     * @param source the whole source text, shared by all the skipped bodies
+     * @param begin the offset of the first character of the body
+     * @param end the offset after the last character of the body
+     * @param configuration the configuration of the skipping parser
+     * @param identifierInterner the identifier interner of the skipping parser
+     */
+    LazySelect(String source, int begin, int end, FeatureConfiguration configuration,
+            IdentifierInterner identifierInterner) {
+        this.source = source;
+        this.begin = begin;
+        this.end = end;
+        this.configuration = configuration;
+        this.identifierInterner = identifierInterner;
+    }
+
+    String getText() {
+        return source.substring(begin, end);
+    }
+
+    /**
+     * @return the parsed body
+     * @throws UncheckedJSQLParserException when the skipped body can't be parsed
+     */
+    @Override
+    public Select get() {
+        String text = getText();
+        CCJSqlParser parser = new CCJSqlParser(new StringProvider(text)).withConfiguration(configuration)
+                .withIdentifierInterner(identifierInterner != null ? identifierInterner : IdentifierInterner.NONE);
+        try {
+            Select select = parser.Select();
+            if (parser.getNextToken().kind != CCJSqlParserConstants.EOF) {
+                throw new ParseException("Unexpected tokens after the sub-select: " + text);
+            }
+            return select;
+        } catch (ParseException | TokenMgrException ex) {
+            throw new UncheckedJSQLParserException("The lazy sub-select can't be parsed: " + text,
+                    new JSQLParserException(ex));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+}
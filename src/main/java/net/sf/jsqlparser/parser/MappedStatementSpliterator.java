@@ -0,0 +1,335 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Pulls the statements of a script file one at a time like a {@link StatementSpliterator}, but
+ * reads the file through a window memory mapped into the address space instead of a character
+ * stream. It is meant for dumps of many gigabytes: the heap holds only the text of the current
+ * statement, no matter how large the file is.
+ * <p>
+ * The statement boundaries are found by a {@link StatementSplitter} on the raw bytes, which works
+ * for encodings where every byte of a multi-byte character is outside of the ASCII range: UTF-8,
+ * US-ASCII and ISO-8859-1. Non-ASCII characters are treated as letters. Only the bytes of each
+ * statement are decoded, into a character buffer reused for all the statements.
+ * <p>
+ * The window is moved forward to the start of the current statement, whenever the scan reaches its
+ * end, and grows for statements larger than the window. Each {@link ParsedStatement} holds the
+ * offsets of its text in bytes as well as in characters. The progress is reported after each
+ * statement to an optional {@link ProgressListener}.
+ *
+ * @see CCJSqlParserUtil#streamMappedStatements(Path, Charset, Consumer)
+ */
+public class MappedStatementSpliterator implements Spliterator<ParsedStatement>, Closeable {
+
+    static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    // a rough guess used for the estimated size of a file
+    private static final int ESTIMATED_STATEMENT_SIZE = 128;
+
+    // stands in for any byte of a non-ASCII character
+    private static final char NON_ASCII = '\u00C0';
+
+    /**
+     * Receives the progress of a {@link MappedStatementSpliterator}.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        /**
+         * @param position the number of bytes of the file scanned so far
+         * @param size the size of the file in bytes
+         */
+        void progress(long position, long size);
+    }
+
+    private final Consumer<CCJSqlParser> consumer;
+
+    private final boolean utf8;
+
+    private final CharsetDecoder decoder;
+
+    private FileChannel channel;
+
+    private final long size;
+
+    private int windowSize;
+
+    private MappedByteBuffer window;
+
+    // the offset of the first byte of the window within the file
+    private long windowStart;
+
+    private final CharSequence windowChars = new CharSequence() {
+        @Override
+        public int length() {
+            return window.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            byte b = window.get(index);
+            return b >= 0 ? (char) b : NON_ASCII;
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    // the offset of the next byte to scan
+    private long scanned;
+
+    // the byte offset of the first byte of the current statement and the delimiters before it
+    private long statementStart;
+
+    // the character offset corresponding to statementStart
+    private long charOffset;
+
+    private CharBuffer chars = CharBuffer.allocate(0);
+
+    private boolean exhausted;
+
+    private final StatementSplitter splitter;
+
+    private final Deque<ParsedStatement> pending = new ArrayDeque<>();
+
+    private ProgressListener progressListener;
+
+    /**
+     * @param path the script
+     * @param charset the encoding of the script, UTF-8, US-ASCII or ISO-8859-1
+     * @param consumer configures the parser of each statement, may be {@code null}
+     * @throws IOException when the file can't be opened
+     */
+    public MappedStatementSpliterator(Path path, Charset charset, Consumer<CCJSqlParser> consumer)
+            throws IOException {
+        this(path, charset, consumer, DEFAULT_WINDOW_SIZE);
+    }
+
+    MappedStatementSpliterator(Path path, Charset charset, Consumer<CCJSqlParser> consumer, int windowSize)
+            throws IOException {
+        if (!StandardCharsets.UTF_8.equals(charset) && !StandardCharsets.US_ASCII.equals(charset)
+                && !StandardCharsets.ISO_8859_1.equals(charset)) {
+            throw new IllegalArgumentException("The encoding " + charset + " can't be split at byte level");
+        }
+        this.consumer = consumer;
+        this.splitter = StatementSplitter.of(StatementSplitter.configurationOf(consumer));
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+        this.decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.windowSize = windowSize;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @param progressListener receives the progress after each statement, may be {@code null}
+     * @return this spliterator
+     */
+    public MappedStatementSpliterator withProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ParsedStatement> action) {
+        try {
+            while (pending.isEmpty() && !exhausted) {
+                readStatement();
+            }
+        } catch (IOException ex) {
+            closeAfter(ex);
+            throw new UncheckedIOException(ex);
+        }
+        ParsedStatement parsedStatement = pending.poll();
+        if (parsedStatement == null) {
+            return false;
+        }
+        action.accept(parsedStatement);
+        return true;
+    }
+
+    private void readStatement() throws IOException {
+        if (window == null || scanned == windowStart + window.limit()) {
+            if (scanned == size) {
+                exhausted = true;
+                if (splitter.finish()) {
+                    addStatement();
+                }
+                close();
+                return;
+            }
+            map();
+        }
+        int end = splitter.findEnd(windowChars, (int) (scanned - windowStart), window.limit());
+        if (end < 0) {
+            scanned = windowStart + window.limit();
+        } else {
+            scanned = windowStart + end;
+            addStatement();
+        }
+    }
+
+    /**
+     * Maps the window starting at the current statement, so that it holds the next bytes to scan.
+     */
+    private void map() throws IOException {
+        long length = Math.min(windowSize, size - statementStart);
+        while (statementStart + length <= scanned) {
+            if (windowSize > Integer.MAX_VALUE / 2) {
+                throw new IOException("The statement at byte " + statementStart + " is too large");
+            }
+            windowSize *= 2;
+            length = Math.min(windowSize, size - statementStart);
+        }
+        // the previous window is unmapped, when it is garbage collected
+        window = channel.map(FileChannel.MapMode.READ_ONLY, statementStart, length);
+        windowStart = statementStart;
+    }
+
+    private void addStatement() {
+        int from = (int) (splitter.getStatementBegin() - windowStart);
+        int end = (int) (splitter.getStatementEnd() - windowStart);
+        int begin = StatementSplitter.trimBegin(windowChars, from, end);
+        end = StatementSplitter.trimEnd(windowChars, begin, end);
+        if (begin < end) {
+            long charBegin = charOffset + countChars((int) (statementStart - windowStart), begin);
+            String sql = decode(begin, end);
+            for (ParsedStatement parsed : ParsedStatement.parse(sql, charBegin,
+                    charBegin + sql.length(), consumer)) {
+                pending.add(new ParsedStatement(parsed.getStatement(), parsed.getError(), parsed.getBegin(),
+                        parsed.getEnd(), sql, windowStart + begin, windowStart + end));
+            }
+        }
+        long next = splitter.getPosition();
+        charOffset += countChars((int) (statementStart - windowStart), (int) (next - windowStart));
+        statementStart = next;
+        if (progressListener != null) {
+            progressListener.progress(next, size);
+        }
+    }
+
+    private String decode(int begin, int end) {
+        if (chars.capacity() < end - begin) {
+            // a character never takes less than a byte
+            chars = CharBuffer.allocate(Math.max(end - begin, chars.capacity() * 2));
+        }
+        ByteBuffer bytes = window.duplicate();
+        // the casts keep the calls compatible with Java 8, where Buffer has no covariant overrides
+        ((Buffer) bytes).limit(end).position(begin);
+        ((Buffer) chars).clear();
+        decoder.reset();
+        decoder.decode(bytes, chars, true);
+        decoder.flush(chars);
+        ((Buffer) chars).flip();
+        return chars.toString();
+    }
+
+    /**
+     * @return the number of UTF-16 characters encoded by the bytes {@code window[from, to)}
+     */
+    private long countChars(int from, int to) {
+        if (!utf8) {
+            return to - from;
+        }
+        long count = 0;
+        for (int i = from; i < to; i++) {
+            int b = window.get(i) & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                // a leading byte of four bytes starts a surrogate pair
+                count += b >= 0xF0 ? 2 : 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of bytes of the file scanned so far
+     */
+    public long getPosition() {
+        return scanned;
+    }
+
+    /**
+     * @return the size of the file in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return {@code null}, since the file is traversed sequentially
+     */
+    @Override
+    public Spliterator<ParsedStatement> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return exhausted ? 0 : Math.max(1, (size - scanned) / ESTIMATED_STATEMENT_SIZE);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Closes the file, which ends the traversal.
+     *
+     * @throws IOException when closing the file fails
+     */
+    @Override
+    public void close() throws IOException {
+        exhausted = true;
+        window = null;
+        chars = CharBuffer.allocate(0);
+        if (channel != null) {
+            FileChannel c = channel;
+            channel = null;
+            c.close();
+        }
+    }
+
+    private void closeAfter(IOException cause) {
+        try {
+            close();
+        } catch (IOException ex) {
+            cause.addSuppressed(ex);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Parses the statements of a script in parallel: the script is split at its top level statement
+ * boundaries by a {@link StatementSplitter} first and then the pieces are parsed independently on
+ * a {@link ForkJoinPool}. Each piece is parsed on the worker Thread with the cooperative timeout,
+ * so a failing or timed out statement affects only its own result.
+ *
+ * @see CCJSqlParserUtil#parseStatementsParallel(String, ForkJoinPool, Consumer)
+ */
+final class ParallelStatementsParser {
+
+    // the number of leaf tasks per worker, balancing statements of different size
+    private static final int TASKS_PER_WORKER = 4;
+
+    private ParallelStatementsParser() {
+    }
+
+    static ParsedStatements parse(String sqls, ForkJoinPool pool, Consumer<CCJSqlParser> consumer) {
+        int[] ranges = StatementSplitter.split(sqls, StatementSplitter.configurationOf(consumer));
+        int count = ranges.length / 2;
+        @SuppressWarnings("unchecked")
+        List<ParsedStatement>[] results = new List[count];
+        int threshold = Math.max(1, count / (pool.getParallelism() * TASKS_PER_WORKER));
+        pool.invoke(new ParseTask(sqls, ranges, results, 0, count, threshold, consumer));
+
+        ParsedStatements statements = new ParsedStatements();
+        for (List<ParsedStatement> result : results) {
+            for (ParsedStatement parsedStatement : result) {
+                statements.addParsedStatement(parsedStatement);
+            }
+        }
+        return statements;
+    }
+
+    private static final class ParseTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String sqls;
+        // the [begin, end) offsets of the statements, two elements per statement
+        private final int[] ranges;
+        private final List<ParsedStatement>[] results;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final Consumer<CCJSqlParser> consumer;
+
+        @SuppressWarnings("PMD.ArrayIsStoredDirectly")
+        ParseTask(String sqls, int[] ranges, List<ParsedStatement>[] results, int from, int to,
+                int threshold, Consumer<CCJSqlParser> consumer) {
+            this.sqls = sqls;
+            this.ranges = ranges;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    int begin = ranges[2 * i];
+                    int end = ranges[2 * i + 1];
+                    results[i] = ParsedStatement.parse(sqls.substring(begin, end), begin, end, consumer);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ParseTask(sqls, ranges, results, from, middle, threshold, consumer),
+                        new ParseTask(sqls, ranges, results, middle, to, threshold, consumer));
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+
+/**
+ * Remembers the statement shapes, which failed with SIMPLE parsing but succeeded with COMPLEX
+ * parsing, so that {@link CCJSqlParserUtil} can parse them in COMPLEX mode right away instead of
+ * parsing twice.
+ * <p>
+ * A shape is identified by a lexical fingerprint: a 64 bit hash of the statement text, which ignores
+ * the case of letters, the amount of whitespace and the values of number and string literals, and
+ * of the parser's {@link FeatureConfiguration}, since the dialect decides which shapes need COMPLEX
+ * parsing. The fingerprints are kept in a fixed size, lock free table, where a new fingerprint
+ * simply replaces an older one with the same slot. A collision can only send a statement to COMPLEX
+ * parsing needlessly, which accepts the statements SIMPLE parsing accepts.
+ */
+public class ParseStrategyCache {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray fingerprints;
+
+    private final int mask;
+
+    private final LongAdder avoidedDoubleParseCount = new LongAdder();
+
+    private final LongAdder doubleParseCount = new LongAdder();
+
+    private final LongAdder learnedCount = new LongAdder();
+
+    public ParseStrategyCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of shapes to remember, rounded up to the next power of two
+     */
+    public ParseStrategyCache(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        fingerprints = new AtomicLongArray(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Computes the lexical fingerprint of a statement in a single pass without allocating. Letters
+     * are compared case insensitive, any run of whitespace counts as a single blank and the content of
+     * string literals, dollar quoted bodies and the digits of numbers are skipped.
+     *
+     * @param sql the statement text
+     * @return the fingerprint, never 0
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    public static long fingerprint(CharSequence sql) {
+        long hash = FNV_OFFSET_BASIS;
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i = SqlLexer.skipWhitespace(sql, i, length);
+                c = ' ';
+            } else if (c == '\'') {
+                i = orLength(SqlLexer.skipQuoted(sql, i + 1, length, c, false), length);
+            } else if (c == '$' && i + 1 < length && sql.charAt(i + 1) == '$') {
+                i = orLength(SqlLexer.skipDollarQuoted(sql, i + 2, length), length);
+            } else if (c >= '0' && c <= '9') {
+                i = SqlLexer.skipNumber(sql, i, length);
+                c = '0';
+            } else if (Character.isLetter(c) || c == '_') {
+                // keep identifiers with digits, e.g. table1 and table2, apart
+                int end = SqlLexer.skipWord(sql, i, length);
+                hash = hashUpperCase(hash, sql, i, end);
+                i = end;
+                continue;
+            } else {
+                i++;
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * @param sql the statement text
+     * @param configuration the configuration of the parser
+     * @return the fingerprint of the statement in the dialect of the configuration, never 0
+     */
+    public static long fingerprint(CharSequence sql, FeatureConfiguration configuration) {
+        long hash = (fingerprint(sql) ^ configuration.hashCode()) * FNV_PRIME;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int orLength(int end, int length) {
+        return end == SqlLexer.UNTERMINATED ? length : end;
+    }
+
+    private static long hashUpperCase(long hash, CharSequence sql, int start, int end) {
+        long h = hash;
+        for (int i = start; i < end; i++) {
+            h = (h ^ Character.toUpperCase(sql.charAt(i))) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the statement
+     * @return TRUE, if the shape is known to need COMPLEX parsing
+     */
+    public boolean needsComplexParsing(long fingerprint) {
+        return fingerprints.get(slot(fingerprint)) == fingerprint;
+    }
+
+    /**
+     * Remembers, that a shape failed with SIMPLE parsing but succeeded with COMPLEX parsing.
+     *
+     * @param fingerprint the fingerprint of the statement
+     */
+    public void learnComplexParsing(long fingerprint) {
+        fingerprints.set(slot(fingerprint), fingerprint);
+        learnedCount.increment();
+    }
+
+    void recordAvoidedDoubleParse() {
+        avoidedDoubleParseCount.increment();
+    }
+
+    void recordDoubleParse() {
+        doubleParseCount.increment();
+    }
+
+    /**
+     * Forgets all shapes, but keeps the statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < fingerprints.length(); i++) {
+            fingerprints.set(i, 0);
+        }
+    }
+
+    /**
+     * @return how often a statement has been parsed in COMPLEX mode right away, because its shape
+     *         was known
+     */
+    public long getAvoidedDoubleParseCount() {
+        return avoidedDoubleParseCount.sum();
+    }
+
+    /**
+     * @return how often a statement has been parsed again in COMPLEX mode, after SIMPLE parsing had
+     *         failed
+     */
+    public long getDoubleParseCount() {
+        return doubleParseCount.sum();
+    }
+
+    /**
+     * @return how often a shape has been learned
+     */
+    public long getLearnedCount() {
+        return learnedCount.sum();
+    }
+
+    public int getCapacity() {
+        return fingerprints.length();
+    }
+
+    private int slot(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,143 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.Statements;
+
+/**
+ * A single statement of a script together with its position in the script. Either the statement
+ * or the error is set. The position in bytes is only known for statements read from a file by a
+ * {@link MappedStatementSpliterator}.
+ */
+public final class ParsedStatement implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Statement statement;
+
+    private final JSQLParserException error;
+
+    private final long begin;
+
+    private final long end;
+
+    private final String sql;
+
+    private final long byteBegin;
+
+    private final long byteEnd;
+
+    public ParsedStatement(Statement statement, JSQLParserException error, long begin, long end, String sql) {
+        this(statement, error, begin, end, sql, -1, -1);
+    }
+
+    @SuppressWarnings("PMD.ExcessiveParameterList")
+    public ParsedStatement(Statement statement, JSQLParserException error, long begin, long end, String sql,
+            long byteBegin, long byteEnd) {
+        this.statement = statement;
+        this.error = error;
+        this.begin = begin;
+        this.end = end;
+        this.sql = sql;
+        this.byteBegin = byteBegin;
+        this.byteEnd = byteEnd;
+    }
+
+    /**
+     * @return the parsed statement, or <code>null</code> if it could not be parsed
+     */
+    public Statement getStatement() {
+        return statement;
+    }
+
+    /**
+     * @return the reason why the statement could not be parsed, or <code>null</code>
+     */
+    public JSQLParserException getError() {
+        return error;
+    }
+
+    public boolean isParsed() {
+        return error == null;
+    }
+
+    /**
+     * @return the offset of the first character of the statement text within the script
+     */
+    public long getBegin() {
+        return begin;
+    }
+
+    /**
+     * @return the offset after the last character of the statement text within the script,
+     *         excluding the delimiter
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the offset of the first byte of the statement text within the script file, or -1 if
+     *         unknown
+     */
+    public long getByteBegin() {
+        return byteBegin;
+    }
+
+    /**
+     * @return the offset after the last byte of the statement text within the script file,
+     *         excluding the delimiter, or -1 if unknown
+     */
+    public long getByteEnd() {
+        return byteEnd;
+    }
+
+    /**
+     * @return the statement text without its delimiter
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + begin + ", " + end + ") " + (error == null ? statement : error.getMessage());
+    }
+
+    /**
+     * Parses the text of a single piece of a script, as split by a {@link StatementSplitter}.
+     *
+     * @param sql the text of the piece, trimmed of whitespace
+     * @param begin the offset of the piece within the script
+     * @param end the offset after the piece within the script
+     * @param consumer configures the parser
+     * @return the statements of the piece, or its error
+     */
+    static List<ParsedStatement> parse(String sql, long begin, long end, Consumer<CCJSqlParser> consumer) {
+        List<ParsedStatement> result = new ArrayList<>(1);
+        try {
+            // a piece yields several statements, when the parser recognizes a boundary the splitter
+            // did not
+            Statements statements = CCJSqlParserUtil.parseStatementsOrFail(sql, consumer);
+            for (Statement statement : statements) {
+                result.add(new ParsedStatement(statement, null, begin, end, sql));
+            }
+        } catch (JSQLParserException ex) {
+            result.add(new ParsedStatement(null, ex, begin, end, sql));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import net.sf.jsqlparser.statement.Statements;
+
+/**
+ * The Statements of a script parsed statement by statement, which holds the successfully parsed
+ * statements in the order of the script. {@link #getParsedStatements()} additionally tells the
+ * position of each statement and the errors of the statements, which could not be parsed.
+ */
+public class ParsedStatements extends Statements {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<ParsedStatement> parsedStatements = new ArrayList<>();
+
+    /**
+     * Adds a statement, which is added to the Statements too, if it has been parsed.
+     *
+     * @param parsedStatement the statement together with its position
+     */
+    public void addParsedStatement(ParsedStatement parsedStatement) {
+        parsedStatements.add(parsedStatement);
+        if (parsedStatement.isParsed()) {
+            add(parsedStatement.getStatement());
+        }
+    }
+
+    /**
+     * @return all statements in the order of the script, including those which could not be parsed
+     */
+    public List<ParsedStatement> getParsedStatements() {
+        return Collections.unmodifiableList(parsedStatements);
+    }
+
+    /**
+     * @return the statements, which could not be parsed, in the order of the script
+     */
+    public List<ParsedStatement> getErrors() {
+        List<ParsedStatement> errors = new ArrayList<>();
+        for (ParsedStatement parsedStatement : parsedStatements) {
+            if (!parsedStatement.isParsed()) {
+                errors.add(parsedStatement);
+            }
+        }
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        for (ParsedStatement parsedStatement : parsedStatements) {
+            if (!parsedStatement.isParsed()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,171 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, reusable {@link java.util.concurrent.ExecutorService} for running the parser under
+ * the configured {@link net.sf.jsqlparser.parser.feature.Feature#timeOut}.
+ * <p>
+ * The static entry points of {@link CCJSqlParserUtil} share one lazily created default instance
+ * instead of creating and tearing down a new Thread for every statement. Its size can be
+ * configured by the System Properties {@value #POOL_SIZE_PROPERTY} and
+ * {@value #QUEUE_CAPACITY_PROPERTY} or programmatically by {@link #configureDefault(int, int)}.
+ * The worker threads are daemon threads and time out when idle, so the default instance never
+ * prevents the JVM from exiting.
+ */
+public class ParserExecutor extends ThreadPoolExecutor {
+
+    public static final String POOL_SIZE_PROPERTY = "jsqlparser.executor.poolSize";
+
+    public static final String QUEUE_CAPACITY_PROPERTY = "jsqlparser.executor.queueCapacity";
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private static ParserExecutor defaultExecutor;
+
+    private final int queueCapacity;
+
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * @param poolSize the maximum number of statements parsed concurrently
+     * @param queueCapacity the maximum number of statements waiting for a free thread
+     */
+    public ParserExecutor(int poolSize, int queueCapacity) {
+        super(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ParserThreadFactory());
+        this.queueCapacity = queueCapacity;
+        allowCoreThreadTimeOut(true);
+        setRejectedExecutionHandler(new CountingAbortPolicy());
+    }
+
+    /**
+     * @return the shared default instance, which will be (re-)created when it has not been used yet
+     *         or has been shut down
+     */
+    public static synchronized ParserExecutor getDefault() {
+        if (defaultExecutor == null || defaultExecutor.isShutdown()) {
+            defaultExecutor = new ParserExecutor(
+                    Integer.getInteger(POOL_SIZE_PROPERTY, Runtime.getRuntime().availableProcessors()),
+                    Integer.getInteger(QUEUE_CAPACITY_PROPERTY, DEFAULT_QUEUE_CAPACITY));
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Replaces the shared default instance. The previous instance will finish the statements
+     * already submitted, but will not accept any new ones.
+     *
+     * @param poolSize the maximum number of statements parsed concurrently
+     * @param queueCapacity the maximum number of statements waiting for a free thread
+     * @return the new default instance
+     */
+    public static synchronized ParserExecutor configureDefault(int poolSize, int queueCapacity) {
+        ParserExecutor previous = defaultExecutor;
+        defaultExecutor = new ParserExecutor(poolSize, queueCapacity);
+        if (previous != null) {
+            previous.shutdown();
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Shuts down the shared default instance, if it has been created. A later call of
+     * {@link #getDefault()} will create a new one.
+     */
+    public static synchronized void shutdownDefault() {
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdown();
+            defaultExecutor = null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        inFlightCount.incrementAndGet();
+        try {
+            super.execute(command);
+        } catch (RejectedExecutionException ex) {
+            inFlightCount.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        super.afterExecute(r, t);
+        inFlightCount.decrementAndGet();
+    }
+
+    /**
+     * @return the number of statements submitted but not finished yet, either queued or running
+     */
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    /**
+     * @return the number of statements waiting for a free thread
+     */
+    public int getQueueSize() {
+        return getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @return the number of statements rejected because the queue was full or the executor was
+     *         shut down
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private class CountingAbortPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            rejectedCount.incrementAndGet();
+            throw new RejectedExecutionException("The parser executor rejected the statement: "
+                    + (executor.isShutdown() ? "shut down" : "queue capacity of " + queueCapacity + " exceeded"));
+        }
+    }
+
+    private static class ParserThreadFactory implements ThreadFactory {
+
+        private final int poolNumber = POOL_NUMBER.incrementAndGet();
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "jsqlparser-" + poolNumber + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
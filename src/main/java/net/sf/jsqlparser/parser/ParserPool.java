@@ -0,0 +1,141 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+
+/**
+ * Keeps one {@link CCJSqlParser} per Thread and resets it for each text to parse instead of
+ * creating a new parser, Token Manager, character buffers and configuration every time.
+ * <p>
+ * A parser is acquired and must be released after parsing, when the parser is not used anymore by
+ * any Thread. A parser acquired while the Thread's parser is still in use, e.g. by a nested parse,
+ * is a new parser, which is not kept. The parser of a text longer than
+ * {@link #MAXIMUM_RETAINED_LENGTH} is not kept either, so that the buffers sized for it are not
+ * retained.
+ * <p>
+ * Every Thread, which has parsed a text, keeps its parser until the Thread ends, including the
+ * buffers for up to {@link #MAXIMUM_RETAINED_LENGTH} characters. The Threads of an executor, a
+ * {@link java.util.concurrent.ForkJoinPool} or an application server usually outlive the parsing:
+ * call {@link #clear()} on such a Thread when it is done with parsing, e.g. before an application
+ * is undeployed, or disable the pool with {@link #setEnabled(boolean)}.
+ *
+ * <pre>{@code
+ * CCJSqlParser parser = ParserPool.acquire(sql);
+ * try {
+ *     statement = parser.Statement();
+ * } finally {
+ *     ParserPool.release(parser);
+ * }
+ * }</pre>
+ */
+public final class ParserPool {
+
+    public static final int MAXIMUM_RETAINED_LENGTH = 1 << 16;
+
+    private static final ThreadLocal<Slot> SLOTS = ThreadLocal.withInitial(Slot::new);
+
+    private static volatile boolean enabled = true;
+
+    private ParserPool() {
+    }
+
+    private static final class Slot {
+
+        private CCJSqlParser parser;
+
+        private final FeatureConfiguration configuration = new FeatureConfiguration();
+
+        private boolean inUse;
+
+        private boolean retained;
+    }
+
+    /**
+     * @return TRUE, if the parsers are reused
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enabled FALSE for creating a new parser for every text
+     */
+    public static void setEnabled(boolean enabled) {
+        ParserPool.enabled = enabled;
+    }
+
+    /**
+     * Provides a parser for the given text with the default configuration, which is the parser of
+     * the current Thread whenever possible.
+     *
+     * @param sql the text to parse
+     * @return the parser
+     */
+    public static CCJSqlParser acquire(String sql) {
+        if (!enabled) {
+            return CCJSqlParserUtil.newParser(sql);
+        }
+        Slot slot = SLOTS.get();
+        if (slot.inUse) {
+            return CCJSqlParserUtil.newParser(sql);
+        }
+        slot.inUse = true;
+        slot.retained = sql.length() <= MAXIMUM_RETAINED_LENGTH;
+        slot.configuration.setValues(FeatureConfiguration.DEFAULT);
+        if (slot.parser == null) {
+            slot.parser = new CCJSqlParser(new StringProvider(sql));
+        } else {
+            slot.parser.reset(new StringProvider(sql));
+        }
+        return slot.parser.withConfiguration(slot.configuration);
+    }
+
+    /**
+     * Returns a parser, so that it can be reused by the current Thread.
+     *
+     * @param parser the parser, which is not used anymore
+     */
+    public static void release(CCJSqlParser parser) {
+        Slot slot = SLOTS.get();
+        if (slot.parser == parser) {
+            slot.inUse = false;
+            if (!slot.retained) {
+                slot.parser = null;
+            }
+        }
+    }
+
+    /**
+     * Releases the parser kept by the current Thread, so that it can be garbage collected. A parser
+     * still in use is not kept after it is released.
+     */
+    public static void clear() {
+        Slot slot = SLOTS.get();
+        if (slot.inUse) {
+            slot.retained = false;
+        } else {
+            SLOTS.remove();
+        }
+    }
+
+    /**
+     * Forgets a parser, which may still be used by another Thread, e.g. after a time out.
+     *
+     * @param parser the parser, which must not be reused
+     */
+    public static void discard(CCJSqlParser parser) {
+        Slot slot = SLOTS.get();
+        if (slot.parser == parser) {
+            slot.inUse = false;
+            slot.parser = null;
+        }
+    }
+}
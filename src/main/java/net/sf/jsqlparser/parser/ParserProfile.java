@@ -0,0 +1,300 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the invocations, the tokens and the time spent per grammar production and per syntactic
+ * lookahead of the parsers created by {@link #newParser(String)}, and reports them ranked by time.
+ * <p>
+ * The profile depends on the tracing hooks of the parser, which are generated only when the
+ * grammar is compiled with {@code DEBUG_PARSER} and {@code DEBUG_LOOKAHEAD}, e.g. by the Maven
+ * profile {@code parser.profiling} or by {@code gradle -Pprofiling}. The regular build doesn't
+ * generate them, so parsing is not slowed down and {@link #isAvailable()} is FALSE.
+ * <p>
+ * A lookahead is identified by the production it is evaluated in, the generated method
+ * {@code jj_2_<n>} and the line of the call in the generated parser. Its scanned tokens are the
+ * tokens visited before it succeeded or failed, which grow super-linearly when a lookahead
+ * re-scans nested constructs. The productions scanned by lookaheads are listed separately, marked
+ * with {@code (lookahead)}. The time of a lookahead is part of the self time of the production it
+ * is evaluated in, the shares refer to the time spent in the productions. The time spent for
+ * profiling is excluded.
+ * <p>
+ * A profile is not thread-safe: use a profile per Thread.
+ *
+ * <pre>{@code
+ * ParserProfile profile = new ParserProfile();
+ * profile.newParser(sql).Statements();
+ * System.out.println(profile.report(20));
+ * }</pre>
+ */
+public class ParserProfile {
+
+    private final Map<String, Entry> productions = new HashMap<>();
+
+    private final Map<String, Entry> lookaheads = new HashMap<>();
+
+    private long overheadNanos;
+
+    /**
+     * The counters of a production or of a lookahead.
+     */
+    public static final class Entry {
+
+        private static final String LOOKING_AHEAD = "(LOOKING AHEAD...)";
+
+        private final String name;
+
+        private final boolean lookahead;
+
+        private long invocations;
+
+        private long tokens;
+
+        private long scannedTokens;
+
+        private long nanos;
+
+        private long selfNanos;
+
+        // the number of active invocations, for not counting the time of recursive ones twice
+        int active;
+
+        Entry(String name) {
+            this(name, false);
+        }
+
+        private Entry(String name, boolean lookahead) {
+            this.name = name;
+            this.lookahead = lookahead;
+        }
+
+        /**
+         * @param traced the name of a production as traced by the parser
+         * @return the entry of the production
+         */
+        static Entry ofProduction(String traced) {
+            return traced.endsWith(LOOKING_AHEAD)
+                    ? new Entry(traced.substring(0, traced.length() - LOOKING_AHEAD.length()) + " (lookahead)", true)
+                    : new Entry(traced, false);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return TRUE for a production scanned by a lookahead
+         */
+        public boolean isLookahead() {
+            return lookahead;
+        }
+
+        /**
+         * @return the number of invocations
+         */
+        public long getInvocations() {
+            return invocations;
+        }
+
+        /**
+         * @return the tokens consumed by a production itself, 0 for a lookahead
+         */
+        public long getTokens() {
+            return tokens;
+        }
+
+        /**
+         * @return the tokens visited by lookaheads, within a production by the lookaheads evaluated
+         *         in the production itself
+         */
+        public long getScannedTokens() {
+            return scannedTokens;
+        }
+
+        /**
+         * @return the time spent in the production or the lookahead, including nested productions
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return the time spent in the production without nested productions, the time of the
+         *         lookahead
+         */
+        public long getSelfNanos() {
+            return selfNanos;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * @return TRUE, if the parser has been generated with the tracing hooks needed for profiling
+     */
+    public static boolean isAvailable() {
+        try {
+            CCJSqlParser.class.getDeclaredMethod("trace_scan", Token.class, int.class);
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * @param sql the text to parse
+     * @return a parser recording into this profile
+     */
+    public ProfilingParser newParser(String sql) {
+        return new ProfilingParser(new StringProvider(sql), this);
+    }
+
+    /**
+     * @return the productions, ranked by their self time
+     */
+    public List<Entry> getProductions() {
+        return ranked(productions.values(), Comparator.comparingLong(Entry::getSelfNanos));
+    }
+
+    /**
+     * @return the lookaheads, ranked by their time
+     */
+    public List<Entry> getLookaheads() {
+        return ranked(lookaheads.values(), Comparator.comparingLong(Entry::getNanos));
+    }
+
+    private static List<Entry> ranked(Collection<Entry> entries, Comparator<Entry> comparator) {
+        List<Entry> list = new ArrayList<>(entries);
+        list.sort(comparator.reversed().thenComparing(Entry::getName));
+        return list;
+    }
+
+    public void reset() {
+        productions.clear();
+        lookaheads.clear();
+        overheadNanos = 0;
+    }
+
+    /**
+     * @param limit the maximum number of productions and lookaheads to list
+     * @return the report of the lookaheads and the productions, ranked by time
+     */
+    public String report(int limit) {
+        StringBuilder builder = new StringBuilder();
+        try {
+            report(builder, limit);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param appendable where to write the report to
+     * @param limit the maximum number of productions and lookaheads to list
+     * @throws IOException when the report can't be written
+     */
+    public void report(Appendable appendable, int limit) throws IOException {
+        List<Entry> rankedLookaheads = getLookaheads();
+        List<Entry> rankedProductions = getProductions();
+        long total = 0;
+        for (Entry entry : rankedProductions) {
+            if (!entry.lookahead) {
+                total += entry.selfNanos;
+            }
+        }
+
+        appendable.append(String.format("Lookaheads by time%n%10s %7s %12s %14s  %s%n",
+                "ms", "share", "invocations", "tokens scanned", "lookahead"));
+        for (Entry entry : rankedLookaheads.subList(0, Math.min(limit, rankedLookaheads.size()))) {
+            appendable.append(String.format("%10.3f %6.1f%% %12d %14d  %s%n", entry.nanos / 1e6,
+                    share(entry.nanos, total), entry.invocations, entry.scannedTokens, entry.name));
+        }
+
+        appendable.append(String.format("%nProductions by self time%n%10s %7s %10s %12s %8s %14s  %s%n",
+                "self ms", "share", "total ms", "invocations", "tokens", "tokens scanned", "production"));
+        for (Entry entry : rankedProductions.subList(0, Math.min(limit, rankedProductions.size()))) {
+            appendable.append(String.format("%10.3f %6.1f%% %10.3f %12d %8d %14d  %s%n", entry.selfNanos / 1e6,
+                    share(entry.selfNanos, total), entry.nanos / 1e6, entry.invocations, entry.tokens,
+                    entry.scannedTokens, entry.name));
+        }
+    }
+
+    private static double share(long nanos, long total) {
+        return total == 0 ? 0 : 100.0 * nanos / total;
+    }
+
+    @Override
+    public String toString() {
+        return report(20);
+    }
+
+    /**
+     * @return the time, without the time spent for profiling
+     */
+    long now() {
+        return System.nanoTime() - overheadNanos;
+    }
+
+    void addOverhead(long nanos) {
+        overheadNanos += nanos;
+    }
+
+    Entry enterProduction(String traced) {
+        Entry entry = productions.computeIfAbsent(traced, Entry::ofProduction);
+        entry.invocations++;
+        entry.active++;
+        return entry;
+    }
+
+    static void exitProduction(Entry entry, long nanos, long childNanos) {
+        entry.active--;
+        if (entry.active == 0) {
+            entry.nanos += nanos;
+        }
+        entry.selfNanos += nanos - childNanos;
+    }
+
+    static void consumeToken(Entry production) {
+        production.tokens++;
+    }
+
+    Entry enterLookahead(String name) {
+        Entry entry = lookaheads.computeIfAbsent(name, Entry::new);
+        entry.invocations++;
+        return entry;
+    }
+
+    static void scanToken(Entry lookahead, Entry production) {
+        if (lookahead != null) {
+            lookahead.scannedTokens++;
+        }
+        if (production != null) {
+            production.scannedTokens++;
+        }
+    }
+
+    static void exitLookahead(Entry lookahead, long nanos) {
+        lookahead.nanos += nanos;
+        lookahead.selfNanos += nanos;
+    }
+}
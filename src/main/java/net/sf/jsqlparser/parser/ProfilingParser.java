@@ -0,0 +1,166 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A parser recording into a {@link ParserProfile}, by overriding the tracing hooks of a parser
+ * generated with {@code DEBUG_PARSER} and {@code DEBUG_LOOKAHEAD}. Without them it parses like any
+ * other parser and records nothing.
+ */
+// the tracing hooks are named by JavaCC
+@SuppressWarnings("PMD.MethodNamingConventions")
+public class ProfilingParser extends CCJSqlParser {
+
+    private static final String LOOKAHEAD_METHOD = "jj_2_";
+
+    private static final String LOOKAHEAD_RETURN = "(LOOKAHEAD ";
+
+    private final ParserProfile profile;
+
+    // the productions being parsed
+    private final List<Frame> frames = new ArrayList<>();
+
+    // the productions being scanned by the running lookahead, which are not all left when it succeeds
+    private final List<Frame> lookaheadFrames = new ArrayList<>();
+
+    // the number of lookahead frames entered since the last scanned token
+    private int framesSinceScan;
+
+    private ParserProfile.Entry lookahead;
+
+    private long lookaheadBegin;
+
+    private static final class Frame {
+
+        private final ParserProfile.Entry production;
+
+        private final long begin;
+
+        private long childNanos;
+
+        private Frame(ParserProfile.Entry production, long begin) {
+            this.production = production;
+            this.begin = begin;
+        }
+    }
+
+    public ProfilingParser(Provider stream, ParserProfile profile) {
+        super(stream);
+        this.profile = profile;
+    }
+
+    public ParserProfile getProfile() {
+        return profile;
+    }
+
+    // called when a production is entered, also when it is scanned by a lookahead
+    protected void trace_call(String s) {
+        ParserProfile.Entry production = profile.enterProduction(s);
+        if (production.isLookahead()) {
+            lookaheadFrames.add(new Frame(production, profile.now()));
+            framesSinceScan++;
+        } else {
+            exitLookahead();
+            frames.add(new Frame(production, profile.now()));
+        }
+    }
+
+    // called when a production is left, also by an exception, or when its scan fails or succeeds
+    protected void trace_return(String s) {
+        if (s.contains(LOOKAHEAD_RETURN)) {
+            if (!lookaheadFrames.isEmpty()) {
+                exit(lookaheadFrames, lookaheadFrames.size() - 1);
+                framesSinceScan = Math.max(0, framesSinceScan - 1);
+            }
+        } else {
+            exitLookahead();
+            exit(frames, frames.size() - 1);
+        }
+    }
+
+    // called when a token is consumed
+    protected void trace_token(Token t, String where) {
+        exitLookahead();
+        if (!frames.isEmpty()) {
+            ParserProfile.consumeToken(frames.get(frames.size() - 1).production);
+        }
+    }
+
+    // called when a token is visited by a lookahead
+    protected void trace_scan(Token t1, int t2) {
+        // a lookahead, or one of its alternatives, starts with the token after the current one
+        if (t1 == token.next) {
+            String site = lookaheadSite();
+            if (lookahead == null || !lookahead.getName().equals(site)) {
+                // the frames of the previous lookahead, which have not been left when it succeeded
+                int leaked = lookaheadFrames.size() - framesSinceScan;
+                for (int i = leaked - 1; i >= 0; i--) {
+                    exit(lookaheadFrames, i);
+                }
+                closeLookahead();
+                lookahead = profile.enterLookahead(site);
+                lookaheadBegin = profile.now();
+            }
+        }
+        framesSinceScan = 0;
+        List<Frame> scanning = lookaheadFrames.isEmpty() ? frames : lookaheadFrames;
+        ParserProfile.scanToken(lookahead,
+                scanning.isEmpty() ? null : scanning.get(scanning.size() - 1).production);
+    }
+
+    private void exit(List<Frame> stack, int index) {
+        Frame frame = stack.remove(index);
+        long nanos = profile.now() - frame.begin;
+        ParserProfile.exitProduction(frame.production, nanos, frame.childNanos);
+        if (index > 0) {
+            stack.get(index - 1).childNanos += nanos;
+        }
+    }
+
+    /**
+     * Ends the running lookahead, since the parser continues.
+     */
+    private void exitLookahead() {
+        while (!lookaheadFrames.isEmpty()) {
+            exit(lookaheadFrames, lookaheadFrames.size() - 1);
+        }
+        framesSinceScan = 0;
+        closeLookahead();
+    }
+
+    private void closeLookahead() {
+        if (lookahead != null) {
+            ParserProfile.exitLookahead(lookahead, profile.now() - lookaheadBegin);
+            lookahead = null;
+        }
+    }
+
+    /**
+     * @return the production, the generated lookahead method and the line it is called from
+     */
+    private String lookaheadSite() {
+        long begin = System.nanoTime();
+        String site = "unknown";
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        for (int i = 0; i < stack.length - 1; i++) {
+            if (stack[i].getMethodName().startsWith(LOOKAHEAD_METHOD)) {
+                StackTraceElement caller = stack[i + 1];
+                site = caller.getMethodName() + " " + stack[i].getMethodName() + " (line "
+                        + caller.getLineNumber() + ")";
+                break;
+            }
+        }
+        profile.addOverhead(System.nanoTime() - begin);
+        return site;
+    }
+}
@@ -10,6 +10,7 @@
 package net.sf.jsqlparser.parser;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 @SuppressWarnings({ "PMD.MethodNamingConventions", "PMD.CyclomaticComplexity" })
 public class SimpleCharStream {
@@ -45,7 +46,27 @@ public class SimpleCharStream {
 
     protected Provider inputStream;
 
-    private boolean isStringProvider;
+    // the text of a StringProvider, which is read by index instead of through the buffers
+    private String string;
+
+    // the line and column of the first character of the text
+    private int startLine = 1;
+
+    private int startColumn = 1;
+
+    // for a String, the offsets where its lines after the first one begin, found on demand
+    private int[] lineStarts = new int[16];
+
+    private int lineCount = -1;
+
+    private int lastLineIndex;
+
+    // for a String, the line and column changes by adjustBeginLineColumn() from an offset on
+    private int adjustedFrom = Integer.MAX_VALUE;
+
+    private int lineAdjustment;
+
+    private int columnAdjustment;
 
     protected char[] buffer;
 
@@ -73,10 +94,36 @@ public class SimpleCharStream {
         return absoluteTokenBegin;
     }
 
+    /**
+     * @return the number of characters read and not backed up, which is the offset after the last
+     *         token read
+     */
+    public final int getAbsolutePosition() {
+        return totalCharsRead;
+    }
+
+    /**
+     * @return the whole text read, when it is provided by a {@link StringProvider}, else NULL
+     */
+    public final String getSource() {
+        return string;
+    }
+
+    /**
+     * @return the size of the expanded buffers, which grow geometrically so that a long token is
+     *         copied a constant number of times per character instead of once per 2048 characters
+     */
+    protected int expandedBufferSize() {
+        int size = bufsize + Math.max(2048, bufsize >> 1);
+        // avoid an overflow
+        return size < 0 ? Integer.MAX_VALUE - 8 : size;
+    }
+
     protected void ExpandBuff(boolean wrapAround) throws IOException {
-        char[] newbuffer = new char[bufsize + 2048];
-        int[] newbufline = new int[bufsize + 2048];
-        int[] newbufcolumn = new int[bufsize + 2048];
+        int newbufsize = expandedBufferSize();
+        char[] newbuffer = new char[newbufsize];
+        int[] newbufline = new int[newbufsize];
+        int[] newbufcolumn = new int[newbufsize];
         try {
             if (wrapAround) {
                 System.arraycopy(buffer, tokenBegin, newbuffer, 0, bufsize - tokenBegin);
@@ -101,13 +148,13 @@ public class SimpleCharStream {
         } catch (Throwable t) {
             throw new IOException("Errow expanding the buffer.", t);
         }
-        bufsize += 2048;
+        bufsize = newbufsize;
         available = bufsize;
         tokenBegin = 0;
     }
 
     protected void FillBuff() throws IOException {
-        if (!isStringProvider && maxNextCharInd == available) {
+        if (string == null && maxNextCharInd == available) {
             if (available == bufsize) {
                 if (tokenBegin > 2048) {
                     bufpos = maxNextCharInd = 0;
@@ -127,8 +174,8 @@ public class SimpleCharStream {
         }
         int i;
         try {
-            if (inputStream instanceof StringProvider) {
-                i = ((StringProvider) inputStream)._string.length();
+            if (string != null) {
+                i = string.length();
                 if (maxNextCharInd == i) {
                     throw new IOException();
                 }
@@ -197,11 +244,7 @@ public class SimpleCharStream {
     }
 
     private char readChar(int pos) {
-        if (this.inputStream instanceof StringProvider) {
-            return ((StringProvider) inputStream)._string.charAt(pos);
-        } else {
-            return buffer[pos];
-        }
+        return string != null ? string.charAt(pos) : buffer[pos];
     }
 
     /**
@@ -223,7 +266,10 @@ public class SimpleCharStream {
         }
         totalCharsRead++;
         char c = readChar(bufpos);
-        UpdateLineColumn(c);
+        // the lines and columns of a String are computed on demand
+        if (string == null) {
+            UpdateLineColumn(c);
+        }
         return c;
     }
 
@@ -263,14 +309,14 @@ public class SimpleCharStream {
      * @return get token beginning column number.
      */
     public int getBeginColumn() {
-        return bufcolumn[tokenBegin];
+        return string != null ? columnAt(tokenBegin) : bufcolumn[tokenBegin];
     }
 
     /**
      * @return get token beginning line number.
      */
     public int getBeginLine() {
-        return bufline[tokenBegin];
+        return string != null ? lineAt(tokenBegin) : bufline[tokenBegin];
     }
 
     /**
@@ -294,14 +340,13 @@ public class SimpleCharStream {
      */
     public SimpleCharStream(Provider dstream, int startline, int startcolumn, int buffersize) {
         inputStream = dstream;
-        isStringProvider = dstream instanceof StringProvider;
-        line = startline;
+        string = dstream instanceof StringProvider ? ((StringProvider) dstream)._string : null;
+        line = startLine = startline;
         column = startcolumn - 1;
-        if (isStringProvider) {
-            int bs = ((StringProvider) inputStream)._string.length();
-            available = bufsize = bs;
-            bufline = new int[bs];
-            bufcolumn = new int[bs];
+        startColumn = startcolumn;
+        if (string != null) {
+            // neither a buffer nor the lines and columns of every character are needed
+            available = bufsize = string.length();
         } else {
             available = bufsize = buffersize;
             buffer = new char[buffersize];
@@ -337,25 +382,31 @@ public class SimpleCharStream {
      */
     public void ReInit(Provider dstream, int startline, int startcolumn, int buffersize) {
         inputStream = dstream;
-        isStringProvider = dstream instanceof StringProvider;
-        line = startline;
+        string = dstream instanceof StringProvider ? ((StringProvider) dstream)._string : null;
+        line = startLine = startline;
         column = startcolumn - 1;
-        if (isStringProvider) {
-            int bs = ((StringProvider) inputStream)._string.length();
-            available = bufsize = bs;
-            bufline = new int[bs];
-            bufcolumn = new int[bs];
+        startColumn = startcolumn;
+        lineCount = -1;
+        lastLineIndex = 0;
+        adjustedFrom = Integer.MAX_VALUE;
+        lineAdjustment = columnAdjustment = 0;
+        if (string != null) {
+            available = bufsize = string.length();
         } else {
             if (buffer == null || buffersize != buffer.length) {
-                available = bufsize = buffersize;
                 buffer = new char[buffersize];
+            }
+            // the line buffers may have been sized for a text before
+            if (bufline == null || bufline.length != buffersize) {
                 bufline = new int[buffersize];
                 bufcolumn = new int[buffersize];
             }
+            available = bufsize = buffersize;
         }
         prevCharIsLF = prevCharIsCR = false;
         tokenBegin = inBuf = maxNextCharInd = 0;
         bufpos = -1;
+        totalCharsRead = absoluteTokenBegin = 0;
     }
 
     /**
@@ -380,12 +431,11 @@ public class SimpleCharStream {
      * @return get token literal value.
      */
     public String GetImage() {
-        if (isStringProvider) {
-            String data = ((StringProvider) inputStream)._string;
+        if (string != null) {
             if (bufpos >= tokenBegin) {
-                return data.substring(tokenBegin, bufpos + 1);
+                return string.substring(tokenBegin, bufpos + 1);
             } else {
-                return data.substring(tokenBegin, bufsize) + data.substring(0, bufpos + 1);
+                return string.substring(tokenBegin, bufsize) + string.substring(0, bufpos + 1);
             }
         } else {
             if (bufpos >= tokenBegin) {
@@ -402,8 +452,8 @@ public class SimpleCharStream {
      */
     public char[] GetSuffix(int len) {
         char[] ret = new char[len];
-        if (isStringProvider) {
-            String str = ((StringProvider) inputStream)._string;
+        if (string != null) {
+            String str = string;
             if ((bufpos + 1) >= len) {
                 str.getChars(bufpos - len + 1, bufpos - len + 1 + len, ret, 0);
             } else {
@@ -436,6 +486,14 @@ public class SimpleCharStream {
      * @param newCol
      */
     public void adjustBeginLineColumn(int newLine, int newCol) {
+        if (string != null) {
+            // from the beginning of the token on, on its line for the column
+            lineAdjustment += newLine - getBeginLine();
+            adjustedFrom = Integer.MAX_VALUE;
+            columnAdjustment = newCol - getBeginColumn();
+            adjustedFrom = tokenBegin;
+            return;
+        }
         int nl = newLine;
         int start = tokenBegin;
         int len;
@@ -480,11 +538,84 @@ public class SimpleCharStream {
     }
 
     private int getColumnValue() {
-        return bufcolumn[bufpos];
+        return string != null ? columnAt(bufpos) : bufcolumn[bufpos];
     }
 
     private int bufferLinePosition() {
-        return bufline[bufpos];
+        return string != null ? lineAt(bufpos) : bufline[bufpos];
+    }
+
+    /**
+     * Finds the beginnings of the lines of the String, the same way as
+     * {@link #UpdateLineColumn(char)} does: after a LF, and after a CR not followed by a LF.
+     */
+    private void indexLines() {
+        int count = 0;
+        int length = string.length();
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c == '\n' || c == '\r' && (i + 1 == length || string.charAt(i + 1) != '\n')) {
+                if (count == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, count * 2);
+                }
+                lineStarts[count++] = i + 1;
+            }
+        }
+        lineCount = count;
+    }
+
+    /**
+     * @param pos the offset of a character in the String
+     * @return the index of its line, 0 for the first line
+     */
+    private int lineIndexAt(int pos) {
+        if (lineCount < 0) {
+            indexLines();
+        }
+        // the tokens are read in order, so the line is mostly the one of the last lookup or the next
+        int index = lastLineIndex;
+        if (!isOnLine(pos, index)) {
+            if (isOnLine(pos, index + 1)) {
+                index++;
+            } else {
+                // the number of lines beginning at or before the position
+                index = Arrays.binarySearch(lineStarts, 0, lineCount, pos);
+                index = index >= 0 ? index + 1 : -index - 1;
+            }
+            lastLineIndex = index;
+        }
+        return index;
+    }
+
+    private boolean isOnLine(int pos, int index) {
+        return index <= lineCount && (index == 0 || lineStarts[index - 1] <= pos)
+                && (index == lineCount || pos < lineStarts[index]);
+    }
+
+    private int lineAt(int pos) {
+        int result = startLine + lineIndexAt(pos);
+        return pos >= adjustedFrom ? result + lineAdjustment : result;
+    }
+
+    private int columnAt(int pos) {
+        int index = lineIndexAt(pos);
+        int lineStart = index == 0 ? 0 : lineStarts[index - 1];
+        int result = index == 0 ? startColumn - 1 : 0;
+        if (tabSize == 1) {
+            result += pos - lineStart + 1;
+        } else {
+            for (int i = lineStart; i <= pos; i++) {
+                result++;
+                if (string.charAt(i) == '\t') {
+                    result--;
+                    result += tabSize - (result % tabSize);
+                }
+            }
+        }
+        if (pos >= adjustedFrom && lineIndexAt(adjustedFrom) == index) {
+            result += columnAdjustment;
+        }
+        return result;
     }
 }
 /* JavaCC - OriginalChecksum=47e65cd0a1ed785f7a51c9e0c60893c9 (do not edit this line) */
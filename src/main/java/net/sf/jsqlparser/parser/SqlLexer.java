@@ -0,0 +1,150 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+/**
+ * The lexical rules shared by the scanners, which look at a SQL text without tokenizing it: the
+ * {@link SqlPreScanner}, the {@link StatementSplitter} and the fingerprint of the
+ * {@link ParseStrategyCache}.
+ * <p>
+ * Every method skips one kind of lexical element within {@code text[from, to)} and returns the index
+ * after it. Literals, quoted identifiers and comments are entered by the caller, so {@code from} is
+ * the index after the opening delimiter. Nothing is copied or allocated.
+ */
+final class SqlLexer {
+
+    /**
+     * Returned, when the element does not end before {@code to}.
+     */
+    static final int UNTERMINATED = -1;
+
+    private SqlLexer() {
+    }
+
+    static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    /**
+     * @return the index of the first character, which is not a letter, a digit or an underscore
+     */
+    static int skipWord(CharSequence text, int from, int to) {
+        int i = from;
+        while (i < to && isWordPart(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index of the first character, which is not a whitespace
+     */
+    static int skipWhitespace(CharSequence text, int from, int to) {
+        int i = from;
+        while (i < to && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index of the first character, which is neither a digit nor a dot
+     */
+    static int skipNumber(CharSequence text, int from, int to) {
+        int i = from;
+        while (i < to && (Character.isDigit(text.charAt(i)) || text.charAt(i) == '.')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index of the line break ending a {@code --} comment, or {@code to}
+     */
+    static int skipLineComment(CharSequence text, int from, int to) {
+        int i = from;
+        while (i < to && text.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index after the {@code *}{@code /} ending a block comment, or {@link #UNTERMINATED}
+     */
+    static int skipBlockComment(CharSequence text, int from, int to) {
+        return skipPair(text, from, to, '*', '/');
+    }
+
+    /**
+     * @return the index after the {@code $$} ending a dollar quoted body, or {@link #UNTERMINATED}
+     */
+    static int skipDollarQuoted(CharSequence text, int from, int to) {
+        return skipPair(text, from, to, '$', '$');
+    }
+
+    private static int skipPair(CharSequence text, int from, int to, char first, char second) {
+        for (int i = from; i + 1 < to; i++) {
+            if (text.charAt(i) == first && text.charAt(i + 1) == second) {
+                return i + 2;
+            }
+        }
+        return UNTERMINATED;
+    }
+
+    /**
+     * Skips a string literal or a quoted identifier. A doubled closing quote continues it, as long as
+     * both quotes are within the range.
+     *
+     * @param close the closing quote, e.g. {@code '}, {@code "}, {@code `} or {@code ]}
+     * @param backslashEscapes TRUE, if a backslash escapes the next character
+     * @return the index after the closing quote, or {@link #UNTERMINATED}
+     */
+    static int skipQuoted(CharSequence text, int from, int to, char close, boolean backslashEscapes) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && backslashEscapes) {
+                i++;
+            } else if (c == close) {
+                if (i + 1 < to && text.charAt(i + 1) == close) {
+                    i++;
+                } else {
+                    return i + 1;
+                }
+            }
+        }
+        return UNTERMINATED;
+    }
+
+    /**
+     * @return TRUE, if {@code text[from, to)} ends with a backslash escaping the character after it,
+     *         i.e. with an odd number of backslashes
+     */
+    static boolean endsWithinEscape(CharSequence text, int from, int to) {
+        int i = to;
+        while (i > from && text.charAt(i - 1) == '\\') {
+            i--;
+        }
+        return (to - i) % 2 == 1;
+    }
+
+    /**
+     * @return TRUE, if there is a backslash before a quote or another backslash in
+     *         {@code text[from, to)}
+     */
+    static boolean containsBackslashEscape(CharSequence text, int from, int to) {
+        for (int i = from; i + 1 < to; i++) {
+            if (text.charAt(i) == '\\' && (text.charAt(i + 1) == '\'' || text.charAt(i + 1) == '\\')) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
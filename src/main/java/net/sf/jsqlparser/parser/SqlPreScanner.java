@@ -0,0 +1,261 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+/**
+ * A cheap, token aware pre-scan of a SQL text, which runs in a single pass over the characters
+ * without copying or allocating anything. It respects string literals, quoted identifiers, dollar
+ * quoted bodies and comments, so a {@code '('} within the data does not count as nesting.
+ * <p>
+ * The scan reports the nesting depth of parentheses, the number of statements, the kind of the
+ * first statement, the presence of square brackets and of backslash escapes in string literals and
+ * the size of the text. The lexical rules are shared with the {@link StatementSplitter}. An
+ * instance can be reused for scanning any number of texts, but is not thread safe.
+ * <p>
+ * {@link CCJSqlParserUtil} scans a statement only after SIMPLE parsing has failed, and uses only the
+ * nesting depth, to decide whether COMPLEX parsing is tried at all. The dialect findings are not
+ * applied as parser features: square brackets may be array subscripts as well as quoted identifiers
+ * and a backslash before a quote is valid standard SQL, so switching the features by them would
+ * change how valid statements parse.
+ */
+public final class SqlPreScanner {
+
+    /**
+     * The kind of a statement as told by its first keyword.
+     */
+    public enum StatementKind {
+        /**
+         * SELECT, VALUES, a parenthesed query or a WITH clause, which usually precedes a query
+         */
+        SELECT, INSERT, UPDATE, DELETE, MERGE, UPSERT, CREATE, ALTER, DROP, TRUNCATE,
+        /**
+         * any other statement
+         */
+        OTHER,
+        /**
+         * no statement at all, only whitespace or comments
+         */
+        EMPTY;
+
+        /**
+         * @return TRUE for CREATE, ALTER, DROP and TRUNCATE
+         */
+        public boolean isDdl() {
+            return this == CREATE || this == ALTER || this == DROP || this == TRUNCATE;
+        }
+
+        static StatementKind of(CharSequence sql, int begin, int end) {
+            for (StatementKind kind : KEYWORD_KINDS) {
+                if (matches(sql, begin, end, kind.name())) {
+                    return kind;
+                }
+            }
+            return matches(sql, begin, end, "WITH") || matches(sql, begin, end, "VALUES") ? SELECT : OTHER;
+        }
+
+        private static boolean matches(CharSequence sql, int begin, int end, String keyword) {
+            if (end - begin != keyword.length()) {
+                return false;
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                if (Character.toUpperCase(sql.charAt(begin + i)) != keyword.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final StatementKind[] KEYWORD_KINDS = {StatementKind.SELECT, StatementKind.INSERT,
+            StatementKind.UPDATE, StatementKind.DELETE, StatementKind.MERGE, StatementKind.UPSERT,
+            StatementKind.CREATE, StatementKind.ALTER, StatementKind.DROP, StatementKind.TRUNCATE};
+
+    private int length;
+
+    private int nestingDepth;
+
+    private int openParentheses;
+
+    private int statementCount;
+
+    private StatementKind statementKind = StatementKind.EMPTY;
+
+    private boolean squareBrackets;
+
+    private boolean backslashEscapes;
+
+    private boolean unterminated;
+
+    /**
+     * @param sql the SQL text to scan
+     * @return a new scanner holding the result of the scan
+     */
+    public static SqlPreScanner of(CharSequence sql) {
+        return new SqlPreScanner().scan(sql);
+    }
+
+    /**
+     * Scans a SQL text, replacing the result of any previous scan.
+     *
+     * @param sql the SQL text to scan
+     * @return this scanner holding the result of the scan
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    public SqlPreScanner scan(CharSequence sql) {
+        reset(sql.length());
+        int level = 0;
+        boolean statementStarted = false;
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '-' && next(sql, i) == '-') {
+                i = SqlLexer.skipLineComment(sql, i + 2, length);
+                continue;
+            }
+            if (c == '/' && next(sql, i) == '*') {
+                i = terminated(SqlLexer.skipBlockComment(sql, i + 2, length));
+                continue;
+            }
+            if (c == ';') {
+                statementStarted = false;
+                i++;
+                continue;
+            }
+            if (!statementStarted) {
+                statementStarted = true;
+                statementCount++;
+                if (statementCount == 1) {
+                    statementKind = c == '(' ? StatementKind.SELECT
+                            : StatementKind.of(sql, i, SqlLexer.skipWord(sql, i, length));
+                }
+            }
+            switch (c) {
+                case '(':
+                    level++;
+                    nestingDepth = Math.max(nestingDepth, level);
+                    i++;
+                    break;
+                case ')':
+                    level--;
+                    i++;
+                    break;
+                case '[':
+                    squareBrackets = true;
+                    i++;
+                    break;
+                case '\'':
+                    // only a hint, the literal is scanned according to the SQL standard
+                    int end = terminated(SqlLexer.skipQuoted(sql, i + 1, length, c, false));
+                    backslashEscapes |= SqlLexer.containsBackslashEscape(sql, i + 1, end);
+                    i = end;
+                    break;
+                case '"':
+                case '`':
+                    i = terminated(SqlLexer.skipQuoted(sql, i + 1, length, c, false));
+                    break;
+                case '$':
+                    i = next(sql, i) == '$' ? terminated(SqlLexer.skipDollarQuoted(sql, i + 2, length)) : i + 1;
+                    break;
+                default:
+                    i = SqlLexer.isWordPart(c) ? SqlLexer.skipWord(sql, i, length) : i + 1;
+            }
+        }
+        openParentheses = level;
+        return this;
+    }
+
+    private void reset(int length) {
+        this.length = length;
+        nestingDepth = 0;
+        openParentheses = 0;
+        statementCount = 0;
+        statementKind = StatementKind.EMPTY;
+        squareBrackets = false;
+        backslashEscapes = false;
+        unterminated = false;
+    }
+
+    private char next(CharSequence sql, int i) {
+        return i + 1 < length ? sql.charAt(i + 1) : 0;
+    }
+
+    /**
+     * @return the index after a literal or comment, or the length of the text if it did not end
+     */
+    private int terminated(int end) {
+        if (end == SqlLexer.UNTERMINATED) {
+            unterminated = true;
+            return length;
+        }
+        return end;
+    }
+
+    /**
+     * @return the size of the scanned text in characters
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @return the maximum depth of nested parentheses outside of literals and comments
+     */
+    public int getNestingDepth() {
+        return nestingDepth;
+    }
+
+    /**
+     * @return TRUE, if there are more opening than closing parentheses or vice versa
+     */
+    public boolean hasUnbalancedParentheses() {
+        return openParentheses != 0;
+    }
+
+    /**
+     * @return the number of non empty statements separated by semicolons
+     */
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    /**
+     * @return the kind of the first statement
+     */
+    public StatementKind getStatementKind() {
+        return statementKind;
+    }
+
+    /**
+     * @return TRUE, if there are square brackets outside of literals and comments, which are either
+     *         quoted identifiers (SQL Server) or array subscripts
+     */
+    public boolean hasSquareBrackets() {
+        return squareBrackets;
+    }
+
+    /**
+     * @return TRUE, if a string literal contains a backslash before a quote or another backslash
+     *         (MySQL)
+     */
+    public boolean hasBackslashEscapes() {
+        return backslashEscapes;
+    }
+
+    /**
+     * @return TRUE, if a literal, quoted identifier or comment is not terminated
+     */
+    public boolean hasUnterminatedLiteral() {
+        return unterminated;
+    }
+}
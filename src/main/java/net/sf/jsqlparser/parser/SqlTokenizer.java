@@ -0,0 +1,310 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.Arrays;
+import net.sf.jsqlparser.parser.feature.Feature;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+
+/**
+ * Splits SQL text into the tokens of the parser without parsing it, for example for syntax
+ * highlighting, fingerprinting or redaction. The tokens are produced by the parser's own
+ * {@link CCJSqlParserTokenManager}, so they are exactly the tokens the parser would see, with the
+ * same {@link Feature#allowSquareBracketQuotation} and {@link Feature#allowBackslashEscapeCharacter}
+ * switches.
+ * <p>
+ * The tokenizer is a cursor: {@link #next()} moves to the next token, whose kind (one of the
+ * {@link CCJSqlParserConstants}) and offsets are then available. No {@link Token} is created per
+ * token, and the image of a token is only extracted when requested with {@link #withImages(boolean)}.
+ * Comments are skipped, unless requested with {@link #withComments(boolean)}. Alternatively,
+ * {@link #next(int[])} fills an array with the kinds and offsets of the next tokens.
+ * <p>
+ * An instance is not thread safe. It can be reused for another text with {@link #reset(String)}.
+ *
+ * <pre>{@code
+ * SqlTokenizer tokenizer = new SqlTokenizer("SELECT a FROM t WHERE b = 'x'");
+ * while (tokenizer.next()) {
+ *     if (tokenizer.getKind() == CCJSqlParserConstants.S_CHAR_LITERAL) {
+ *         redact(tokenizer.getBegin(), tokenizer.getEnd());
+ *     }
+ * }
+ * }</pre>
+ */
+public class SqlTokenizer {
+
+    // the values per token in the array filled by next(int[])
+    public static final int TOKEN_SIZE = 3;
+
+    private final FeatureConfiguration configuration;
+
+    private final SimpleCharStream stream;
+
+    private final ReusingTokenManager tokenManager;
+
+    private boolean images;
+
+    private boolean comments;
+
+    private boolean exhausted;
+
+    private int kind = -1;
+
+    private int begin;
+
+    private int end;
+
+    private String image;
+
+    // the token found after the comments waiting in front of it
+    private boolean holding;
+
+    private int heldKind;
+
+    private int heldBegin;
+
+    private int heldEnd;
+
+    private String heldImage;
+
+    // the comments found before the next token, as kind, begin and end
+    private int[] pending = new int[TOKEN_SIZE * 4];
+
+    private String[] pendingImages = new String[4];
+
+    private int pendingCount;
+
+    private int pendingIndex;
+
+    /**
+     * @param sql the text to tokenize
+     */
+    public SqlTokenizer(String sql) {
+        this(sql, new FeatureConfiguration());
+    }
+
+    /**
+     * @param sql the text to tokenize
+     * @param configuration the dialect switches of the tokens
+     */
+    public SqlTokenizer(String sql, FeatureConfiguration configuration) {
+        this.configuration = configuration;
+        this.stream = new SimpleCharStream(new StringProvider(sql), 1, 1);
+        this.tokenManager = new ReusingTokenManager(stream);
+        tokenManager.configuration = configuration;
+        tokenManager.configure();
+    }
+
+    /**
+     * @param images TRUE, if {@link #getImage()} shall be available, which costs a
+     *        {@link String} per token
+     * @return this tokenizer
+     */
+    public SqlTokenizer withImages(boolean images) {
+        this.images = images;
+        return this;
+    }
+
+    /**
+     * @param comments TRUE, if the comments shall be returned as tokens of the kinds
+     *        {@link CCJSqlParserConstants#LINE_COMMENT} and
+     *        {@link CCJSqlParserConstants#MULTI_LINE_COMMENT}
+     * @return this tokenizer
+     */
+    public SqlTokenizer withComments(boolean comments) {
+        this.comments = comments;
+        return this;
+    }
+
+    /**
+     * Starts over with another text and the same settings.
+     *
+     * @param sql the text to tokenize
+     * @return this tokenizer
+     */
+    public SqlTokenizer reset(String sql) {
+        stream.ReInit(new StringProvider(sql), 1, 1);
+        tokenManager.ReInit(stream);
+        tokenManager.configure();
+        exhausted = false;
+        holding = false;
+        pendingCount = 0;
+        pendingIndex = 0;
+        kind = -1;
+        image = null;
+        return this;
+    }
+
+    /**
+     * Moves to the next token.
+     *
+     * @return TRUE, if there is a next token, FALSE at the end of the text
+     * @throws TokenMgrException when the text holds a character which can't start any token
+     */
+    public boolean next() {
+        if (pendingIndex < pendingCount) {
+            int i = pendingIndex++ * TOKEN_SIZE;
+            set(pending[i], pending[i + 1], pending[i + 2], pendingImages[pendingIndex - 1]);
+            return true;
+        }
+        if (holding) {
+            holding = false;
+            set(heldKind, heldBegin, heldEnd, heldImage);
+            return true;
+        }
+        if (exhausted) {
+            kind = -1;
+            image = null;
+            return false;
+        }
+        pendingCount = 0;
+        pendingIndex = 0;
+        Token token = tokenManager.getNextToken();
+        if (token.kind == CCJSqlParserConstants.EOF) {
+            exhausted = true;
+            return next();
+        }
+        // the lexical actions may back up, so the end is known only now
+        heldKind = token.kind;
+        heldBegin = stream.getAbsoluteTokenBegin() - 1;
+        heldEnd = stream.getAbsolutePosition();
+        heldImage = images ? token.image : null;
+        holding = true;
+        return next();
+    }
+
+    /**
+     * Moves over the next tokens and stores their kind, begin and end in consecutive elements of
+     * the given array.
+     *
+     * @param tokens the array to fill, {@link #TOKEN_SIZE} elements per token
+     * @return the number of tokens stored, which is less than fit into the array only at the end
+     *         of the text
+     */
+    public int next(int[] tokens) {
+        int count = 0;
+        for (int i = 0; i + TOKEN_SIZE <= tokens.length && next(); i += TOKEN_SIZE) {
+            tokens[i] = kind;
+            tokens[i + 1] = begin;
+            tokens[i + 2] = end;
+            count++;
+        }
+        return count;
+    }
+
+    private void set(int kind, int begin, int end, String image) {
+        this.kind = kind;
+        this.begin = begin;
+        this.end = end;
+        this.image = image;
+    }
+
+    /**
+     * @return the kind of the current token, one of the {@link CCJSqlParserConstants}, or -1 if
+     *         there is none
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * @return the offset of the first character of the current token
+     */
+    public int getBegin() {
+        return begin;
+    }
+
+    /**
+     * @return the offset after the last character of the current token
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the text of the current token, or {@code null} if the images are not requested
+     * @see #withImages(boolean)
+     */
+    public String getImage() {
+        return image;
+    }
+
+    /**
+     * @return the configuration of the dialect switches
+     */
+    public FeatureConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    private void addComment(int kind, int begin, int end, String image) {
+        if (pending.length < (pendingCount + 1) * TOKEN_SIZE) {
+            pending = Arrays.copyOf(pending, pending.length * 2);
+            pendingImages = Arrays.copyOf(pendingImages, pendingImages.length * 2);
+        }
+        int i = pendingCount * TOKEN_SIZE;
+        pending[i] = kind;
+        pending[i + 1] = begin;
+        pending[i + 2] = end;
+        pendingImages[pendingCount++] = image;
+    }
+
+    /**
+     * Fills one and the same {@link Token} for all the tokens and extracts their images only when
+     * needed.
+     */
+    private final class ReusingTokenManager extends CCJSqlParserTokenManager {
+
+        private final Token token = new Token();
+
+        private boolean backslashEscapes;
+
+        private boolean squareBrackets;
+
+        ReusingTokenManager(SimpleCharStream stream) {
+            super(stream);
+        }
+
+        void configure() {
+            backslashEscapes = configuration.getAsBoolean(Feature.allowBackslashEscapeCharacter);
+            squareBrackets = configuration.getAsBoolean(Feature.allowSquareBracketQuotation);
+        }
+
+        @Override
+        protected Token jjFillToken() {
+            int matchedKind = jjmatchedKind;
+            boolean comment = matchedKind == LINE_COMMENT || matchedKind == MULTI_LINE_COMMENT;
+            String literal = jjstrLiteralImages[matchedKind];
+            String tokenImage;
+            if (literal != null) {
+                tokenImage = literal;
+            } else if (images && (comments || !comment) || isImageInspected(matchedKind)) {
+                tokenImage = input_stream.GetImage();
+            } else {
+                tokenImage = "";
+            }
+            if (comment && comments) {
+                addComment(matchedKind, input_stream.getAbsoluteTokenBegin() - 1,
+                        input_stream.getAbsolutePosition(), images ? tokenImage : null);
+            }
+            token.kind = matchedKind;
+            token.image = tokenImage;
+            token.next = null;
+            token.specialToken = null;
+            return token;
+        }
+
+        /**
+         * @return TRUE, if the lexical action of the token inspects its image
+         */
+        private boolean isImageInspected(int matchedKind) {
+            return matchedKind == S_CHAR_LITERAL && !backslashEscapes
+                    || matchedKind == S_QUOTED_IDENTIFIER && !squareBrackets;
+        }
+    }
+}
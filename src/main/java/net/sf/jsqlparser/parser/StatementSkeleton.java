@@ -0,0 +1,477 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.SqlPreScanner.StatementKind;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.insert.Insert;
+import net.sf.jsqlparser.statement.merge.Merge;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.update.Update;
+import net.sf.jsqlparser.statement.upsert.Upsert;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+
+/**
+ * The kind of a statement and the tables it references, recognised from the Tokens of the
+ * statement without building the AST. It serves query routing and SQL firewalls, which need
+ * nothing else and would otherwise pay for a full parse and a {@link TablesNamesFinder}.
+ * <p>
+ * The skeleton knows the structure of queries, of INSERT, UPDATE and DELETE statements and of
+ * CREATE TABLE, CREATE VIEW, ALTER TABLE, DROP TABLE and TRUNCATE. The expressions, select items
+ * and literals are skipped, only their parenthesed queries are looked into. Common table
+ * expressions are not reported as tables. Whenever the Tokens are ambiguous or not covered, e.g.
+ * a table function, a parenthesed join or any other kind of statement, the statement is parsed
+ * fully and its tables are found by the {@link TablesNamesFinder}.
+ * <p>
+ * The skeleton doesn't validate the statement: a statement with an invalid expression yields a
+ * skeleton, while a full parse would fail.
+ *
+ * <pre>{@code
+ * StatementSkeleton skeleton = StatementSkeleton.parse("SELECT * FROM a JOIN b ON a.id = b.id");
+ * skeleton.getStatementKind(); // SELECT
+ * skeleton.getTables(); // [a, b]
+ * }</pre>
+ */
+public final class StatementSkeleton {
+
+    private static final Set<String> RESERVED_KEYWORDS = new HashSet<>();
+
+    private static final Set<String> CLAUSE_KEYWORDS = new HashSet<>(Arrays.asList("WHERE", "GROUP", "HAVING",
+            "ORDER", "LIMIT", "OFFSET", "FETCH", "UNION", "INTERSECT", "EXCEPT", "MINUS", "WINDOW", "QUALIFY", "FOR",
+            "SET", "CONNECT", "START", "RETURNING", "VALUES"));
+
+    private static final Set<String> UNSUPPORTED_FROM_KEYWORDS = new HashSet<>(
+            Arrays.asList("APPLY", "PIVOT", "UNPIVOT", "LATERAL", "MATCH_RECOGNIZE"));
+
+    private static final Set<String> CREATE_MODIFIERS = new HashSet<>(Arrays.asList("OR", "REPLACE", "GLOBAL",
+            "LOCAL", "TEMPORARY", "TEMP", "UNLOGGED", "MATERIALIZED", "FORCE"));
+
+    private static final Set<String> DML_MODIFIERS = new HashSet<>(
+            Arrays.asList("LOW_PRIORITY", "HIGH_PRIORITY", "DELAYED", "QUICK", "IGNORE"));
+
+    private static final Set<String> DROP_OPTIONS = new HashSet<>(Arrays.asList("CASCADE", "RESTRICT", "PURGE"));
+
+    static {
+        for (Object[] keyword : ParserKeywordsUtils.ALL_RESERVED_KEYWORDS) {
+            RESERVED_KEYWORDS.add(((String) keyword[0]).trim());
+        }
+        RESERVED_KEYWORDS.addAll(CLAUSE_KEYWORDS);
+    }
+
+    private final StatementKind statementKind;
+
+    private final List<String> tables;
+
+    private final Statement statement;
+
+    private StatementSkeleton(StatementKind statementKind, List<String> tables, Statement statement) {
+        this.statementKind = statementKind;
+        this.tables = Collections.unmodifiableList(tables);
+        this.statement = statement;
+    }
+
+    /**
+     * @param sql the text of a single statement
+     * @return the skeleton of the statement
+     * @throws JSQLParserException when the statement had to be parsed fully and is invalid
+     */
+    public static StatementSkeleton parse(String sql) throws JSQLParserException {
+        return parse(sql, null);
+    }
+
+    /**
+     * @param sql the text of a single statement
+     * @param consumer the configuration of the parser, which is used for the Tokens as well as for
+     *        a full parse, or NULL
+     * @return the skeleton of the statement
+     * @throws JSQLParserException when the statement had to be parsed fully and is invalid
+     */
+    public static StatementSkeleton parse(String sql, Consumer<CCJSqlParser> consumer) throws JSQLParserException {
+        CCJSqlParser parser = CCJSqlParserUtil.newParser(sql);
+        if (consumer != null) {
+            consumer.accept(parser);
+        }
+        Scanner scanner = new Scanner(parser);
+        boolean recognised;
+        try {
+            recognised = scanner.scan();
+        } catch (TokenMgrException ex) {
+            // the full parse reports the error
+            recognised = false;
+        }
+        if (recognised) {
+            return new StatementSkeleton(scanner.statementKind, scanner.tables, null);
+        }
+
+        Statement statement = CCJSqlParserUtil.parse(sql, consumer);
+        List<String> tables;
+        try {
+            tables = new TablesNamesFinder().getTableList(statement);
+        } catch (UnsupportedOperationException ex) {
+            tables = new ArrayList<>();
+        }
+        return new StatementSkeleton(statementKindOf(statement, sql), tables, statement);
+    }
+
+    private static StatementKind statementKindOf(Statement statement, String sql) {
+        if (statement instanceof Select) {
+            return StatementKind.SELECT;
+        } else if (statement instanceof Insert) {
+            return StatementKind.INSERT;
+        } else if (statement instanceof Update) {
+            return StatementKind.UPDATE;
+        } else if (statement instanceof Delete) {
+            return StatementKind.DELETE;
+        } else if (statement instanceof Merge) {
+            return StatementKind.MERGE;
+        } else if (statement instanceof Upsert) {
+            return StatementKind.UPSERT;
+        }
+        return SqlPreScanner.of(sql).getStatementKind();
+    }
+
+    /**
+     * @return the kind of the statement, also the kind of the statement following common table
+     *         expressions
+     */
+    public StatementKind getStatementKind() {
+        return statementKind;
+    }
+
+    /**
+     * @return the names of the referenced tables as written, in the order of their first
+     *         appearance, without the names of common table expressions. Empty for a statement,
+     *         which has been parsed fully and is not supported by the {@link TablesNamesFinder}.
+     */
+    public List<String> getTables() {
+        return tables;
+    }
+
+    /**
+     * @return TRUE, if the statement had to be parsed fully
+     */
+    public boolean isFullyParsed() {
+        return statement != null;
+    }
+
+    /**
+     * @return the statement, if it had to be parsed fully, otherwise NULL
+     */
+    public Statement getStatement() {
+        return statement;
+    }
+
+    @Override
+    public String toString() {
+        return statementKind + " " + tables;
+    }
+
+    /**
+     * Recognises the skeleton by recursive descent over the Tokens. Each method returns FALSE, when
+     * the Tokens are not understood and the statement needs to be parsed fully.
+     */
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private static final class Scanner {
+
+        private final CCJSqlParser parser;
+
+        private final List<String> tables = new ArrayList<>();
+
+        private final Set<String> withItemNames = new HashSet<>();
+
+        private StatementKind statementKind = StatementKind.OTHER;
+
+        private Scanner(CCJSqlParser parser) {
+            this.parser = parser;
+        }
+
+        private Token next() {
+            return parser.getNextToken();
+        }
+
+        private Token peek() {
+            return parser.getToken(1);
+        }
+
+        private static boolean is(Token token, String image) {
+            return token.kind != CCJSqlParserConstants.S_CHAR_LITERAL
+                    && token.kind != CCJSqlParserConstants.S_QUOTED_IDENTIFIER && token.image.equalsIgnoreCase(image);
+        }
+
+        private static boolean isIn(Token token, Set<String> keywords) {
+            return token.kind != CCJSqlParserConstants.S_CHAR_LITERAL
+                    && token.kind != CCJSqlParserConstants.S_QUOTED_IDENTIFIER
+                    && keywords.contains(token.image.toUpperCase(Locale.ROOT));
+        }
+
+        private static boolean isName(Token token) {
+            switch (token.kind) {
+                case CCJSqlParserConstants.S_QUOTED_IDENTIFIER:
+                    return true;
+                case CCJSqlParserConstants.S_IDENTIFIER:
+                    // a database link
+                    return token.image.indexOf('@') < 0;
+                case CCJSqlParserConstants.S_CHAR_LITERAL:
+                case CCJSqlParserConstants.S_HEX:
+                case CCJSqlParserConstants.EOF:
+                    return false;
+                default:
+                    // a keyword, which is not reserved
+                    return Character.isLetter(token.image.charAt(0)) && !isIn(token, RESERVED_KEYWORDS);
+            }
+        }
+
+        private boolean skip(String keyword) {
+            if (is(peek(), keyword)) {
+                next();
+                return true;
+            }
+            return false;
+        }
+
+        boolean scan() {
+            if (skip("WITH") && !withItems()) {
+                return false;
+            }
+            Token first = peek();
+            statementKind = "(".equals(first.image) ? StatementKind.SELECT
+                    : StatementKind.of(first.image, 0, first.image.length());
+            switch (statementKind) {
+                case SELECT:
+                    return clauses(false, false, false);
+                case INSERT:
+                    return insert();
+                case UPDATE:
+                    return update();
+                case DELETE:
+                    return delete();
+                case CREATE:
+                    return create();
+                case ALTER:
+                    return alter();
+                case DROP:
+                    return drop();
+                case TRUNCATE:
+                    return truncate();
+                default:
+                    return false;
+            }
+        }
+
+        private boolean insert() {
+            next();
+            while (isIn(peek(), DML_MODIFIERS)) {
+                next();
+            }
+            return skip("INTO") && table(true) && clauses(false, false, false);
+        }
+
+        private boolean update() {
+            next();
+            while (isIn(peek(), DML_MODIFIERS)) {
+                next();
+            }
+            return table(false) && clauses(false, true, true);
+        }
+
+        private boolean delete() {
+            next();
+            while (isIn(peek(), DML_MODIFIERS)) {
+                next();
+            }
+            return skip("FROM") && table(false) && clauses(false, true, true);
+        }
+
+        private boolean create() {
+            next();
+            while (isIn(peek(), CREATE_MODIFIERS)) {
+                next();
+            }
+            if (!skip("TABLE") && !skip("VIEW")) {
+                return false;
+            }
+            if (skip("IF") && !(skip("NOT") && skip("EXISTS"))) {
+                return false;
+            }
+            return table(true) && clauses(false, false, false);
+        }
+
+        private boolean alter() {
+            next();
+            if (!skip("TABLE") || skip("IF") && !skip("EXISTS")) {
+                return false;
+            }
+            skip("ONLY");
+            return table(false) && clauses(false, false, false);
+        }
+
+        private boolean drop() {
+            next();
+            if (!skip("TABLE") || skip("IF") && !skip("EXISTS") || !table(false)) {
+                return false;
+            }
+            while (isIn(peek(), DROP_OPTIONS)) {
+                next();
+            }
+            return end(next());
+        }
+
+        private boolean truncate() {
+            next();
+            skip("TABLE");
+            if (!table(false)) {
+                return false;
+            }
+            while (isIn(peek(), DROP_OPTIONS)) {
+                next();
+            }
+            return end(next());
+        }
+
+        /**
+         * @param token the token after the statement
+         * @return TRUE, if the token ends the text, optionally preceded by a semicolon
+         */
+        private boolean end(Token token) {
+            if (token.kind == CCJSqlParserConstants.EOF) {
+                return true;
+            }
+            return ";".equals(token.image) && next().kind == CCJSqlParserConstants.EOF;
+        }
+
+        /**
+         * Scans the common table expressions following {@code WITH}.
+         */
+        private boolean withItems() {
+            skip("RECURSIVE");
+            do {
+                Token name = next();
+                if (!isName(name)) {
+                    return false;
+                }
+                withItemNames.add(name.image.toLowerCase(Locale.ROOT));
+                if (skip("(") && !clauses(true, false, false)) {
+                    return false;
+                }
+                if (!skip("AS")) {
+                    return false;
+                }
+                skip("NOT");
+                skip("MATERIALIZED");
+                if (!skip("(") || !clauses(true, false, false)) {
+                    return false;
+                }
+            } while (skip(","));
+            return true;
+        }
+
+        /**
+         * Scans a table reference: a table name or a parenthesed query, which may be followed by an
+         * alias.
+         *
+         * @param columns TRUE, if the table name may be followed by a parenthesed list of columns
+         */
+        private boolean table(boolean columns) {
+            Token token = next();
+            if ("(".equals(token.image)) {
+                Token first = peek();
+                return (is(first, "SELECT") || is(first, "WITH")) && clauses(true, false, false);
+            }
+            if (!isName(token)) {
+                return false;
+            }
+            StringBuilder name = new StringBuilder(token.image);
+            while (".".equals(peek().image)) {
+                next();
+                token = next();
+                if (!isName(token)) {
+                    return false;
+                }
+                name.append('.').append(token.image);
+            }
+            if (!columns && "(".equals(peek().image)) {
+                // a table function
+                return false;
+            }
+            String table = name.toString();
+            if (!withItemNames.contains(table.toLowerCase(Locale.ROOT)) && !tables.contains(table)) {
+                tables.add(table);
+            }
+            return true;
+        }
+
+        /**
+         * Scans the clauses of a statement or a parenthesed expression up to its end.
+         *
+         * @param nested TRUE within parentheses, which end with the closing parenthesis
+         * @param query TRUE, if {@code FROM} starts a list of tables, which is also the case after
+         *        {@code SELECT}
+         * @param fromClause TRUE, if within a list of tables
+         */
+        @SuppressWarnings("PMD.NPathComplexity")
+        private boolean clauses(boolean nested, boolean query, boolean fromClause) {
+            boolean inQuery = query;
+            boolean inFromClause = fromClause;
+            Token previous = null;
+            while (true) {
+                Token token = next();
+                if (token.kind == CCJSqlParserConstants.EOF || ";".equals(token.image)) {
+                    return !nested && end(token);
+                } else if (")".equals(token.image)) {
+                    return nested;
+                } else if ("(".equals(token.image)) {
+                    if (!clauses(true, false, false)) {
+                        return false;
+                    }
+                } else if (is(token, "WITH")) {
+                    // neither Oracle's START WITH nor a table hint
+                    if ((previous == null || !is(previous, "START")) && !inFromClause && isName(peek())
+                            && !withItems()) {
+                        return false;
+                    }
+                } else if (is(token, "SELECT")) {
+                    inQuery = true;
+                    inFromClause = false;
+                } else if (inQuery && is(token, "INTO")) {
+                    // SELECT INTO
+                    return false;
+                } else if (inQuery && is(token, "FROM")) {
+                    // IS DISTINCT FROM
+                    if (previous != null && is(previous, "DISTINCT") || !table(false)) {
+                        return false;
+                    }
+                    inFromClause = true;
+                } else if (inFromClause) {
+                    if (isIn(token, UNSUPPORTED_FROM_KEYWORDS)) {
+                        return false;
+                    } else if (",".equals(token.image) || is(token, "JOIN") || is(token, "STRAIGHT_JOIN")
+                            || is(token, "USING") && !"(".equals(peek().image)) {
+                        if (!table(false)) {
+                            return false;
+                        }
+                    } else if (isIn(token, CLAUSE_KEYWORDS)) {
+                        inFromClause = false;
+                    }
+                }
+                previous = token;
+            }
+        }
+    }
+}
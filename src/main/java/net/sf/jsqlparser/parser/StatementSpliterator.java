@@ -0,0 +1,409 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+
+/**
+ * Pulls the statements of a script from a character stream one at a time. Only the text of the
+ * current statement is held in memory, so scripts of any size can be parsed in constant memory.
+ * <p>
+ * The script is split at its top level statement boundaries by a {@link StatementSplitter} and each
+ * statement is parsed on its own, so a statement which can't be parsed is reported as a
+ * {@link ParsedStatement} with an error and the next statement is parsed as usual. Traversal stops
+ * as soon as no more statements are requested.
+ * <p>
+ * A spliterator over a file supports {@link #trySplit()} before its traversal has started, if the
+ * file is encoded in UTF-8, US-ASCII or ISO-8859-1: on the first split, the range of the file is
+ * scanned once for statement boundaries at least 64 KiB apart. These boundaries are shared with all
+ * the spliterators split off later, so every split takes the boundary in the middle of its range
+ * without reading the file again and the statements of both halves can be parsed in parallel.
+ *
+ * @see CCJSqlParserUtil#streamStatements(Reader, Consumer)
+ */
+public class StatementSpliterator implements Spliterator<ParsedStatement>, Closeable {
+
+    // a rough guess used for the estimated size of a file
+    private static final int ESTIMATED_STATEMENT_SIZE = 128;
+
+    // ranges smaller than this are not split further
+    private static final long MINIMUM_SPLIT_SIZE = 1 << 16;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Consumer<CCJSqlParser> consumer;
+
+    // the dialect of the script, null for the default dialect
+    private final FeatureConfiguration configuration;
+
+    private final Path path;
+
+    private final Charset charset;
+
+    private long byteBegin;
+
+    private final long byteEnd;
+
+    // the offset of the first character within the whole script
+    private long offset;
+
+    private Reader reader;
+
+    private boolean started;
+
+    private boolean exhausted;
+
+    private final StatementSplitter splitter;
+
+    private final StringBuilder statement = new StringBuilder();
+
+    // the splitter position of the first character in the statement buffer
+    private long statementStart;
+
+    private char[] buffer;
+
+    private CharBuffer wrappedBuffer;
+
+    private int bufferPosition;
+
+    private int bufferLimit;
+
+    private final Deque<ParsedStatement> pending = new ArrayDeque<>();
+
+    // the statement boundaries within the range, found by the first split and shared
+    private Boundaries boundaries;
+
+    private int firstBoundary;
+
+    // the index after the last boundary within the range
+    private int lastBoundary;
+
+    /**
+     * @param reader the script, which is closed when the traversal is complete
+     * @param consumer configures the parser of each statement, may be {@code null}
+     */
+    public StatementSpliterator(Reader reader, Consumer<CCJSqlParser> consumer) {
+        this.reader = reader;
+        this.consumer = consumer;
+        this.configuration = StatementSplitter.configurationOf(consumer);
+        this.splitter = StatementSplitter.of(configuration);
+        this.path = null;
+        this.charset = null;
+        this.byteEnd = -1;
+    }
+
+    /**
+     * @param path the script
+     * @param charset the encoding of the script
+     * @param consumer configures the parser of each statement, may be {@code null}
+     * @throws IOException when the size of the file can't be determined
+     */
+    public StatementSpliterator(Path path, Charset charset, Consumer<CCJSqlParser> consumer) throws IOException {
+        this(path, charset, 0, Files.size(path), 0, consumer, StatementSplitter.configurationOf(consumer));
+    }
+
+    private StatementSpliterator(Path path, Charset charset, long byteBegin, long byteEnd, long offset,
+            Consumer<CCJSqlParser> consumer, FeatureConfiguration configuration) {
+        this.path = path;
+        this.charset = charset;
+        this.byteBegin = byteBegin;
+        this.byteEnd = byteEnd;
+        this.offset = offset;
+        this.consumer = consumer;
+        this.configuration = configuration;
+        this.splitter = StatementSplitter.of(configuration);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ParsedStatement> action) {
+        try {
+            while (pending.isEmpty() && !exhausted) {
+                readStatement();
+            }
+        } catch (IOException ex) {
+            closeAfter(ex);
+            throw new UncheckedIOException(ex);
+        }
+        ParsedStatement parsedStatement = pending.poll();
+        if (parsedStatement == null) {
+            return false;
+        }
+        action.accept(parsedStatement);
+        return true;
+    }
+
+    private void readStatement() throws IOException {
+        if (!started) {
+            started = true;
+            buffer = new char[BUFFER_SIZE];
+            wrappedBuffer = CharBuffer.wrap(buffer);
+            if (reader == null) {
+                reader = open(byteBegin);
+            }
+        }
+        if (bufferPosition == bufferLimit) {
+            bufferPosition = 0;
+            bufferLimit = Math.max(0, reader.read(buffer));
+            if (bufferLimit == 0) {
+                exhausted = true;
+                if (splitter.finish()) {
+                    addStatement();
+                }
+                close();
+                return;
+            }
+        }
+        int end = splitter.findEnd(wrappedBuffer, bufferPosition, bufferLimit);
+        int consumed = end < 0 ? bufferLimit : end;
+        statement.append(buffer, bufferPosition, consumed - bufferPosition);
+        bufferPosition = consumed;
+        if (end >= 0) {
+            addStatement();
+        }
+    }
+
+    private void addStatement() {
+        int end = (int) (splitter.getStatementEnd() - statementStart);
+        int begin = StatementSplitter.trimBegin(statement,
+                (int) (splitter.getStatementBegin() - statementStart), end);
+        end = StatementSplitter.trimEnd(statement, begin, end);
+        if (begin < end) {
+            pending.addAll(ParsedStatement.parse(statement.substring(begin, end),
+                    offset + statementStart + begin, offset + statementStart + end, consumer));
+        }
+        statement.setLength(0);
+        statementStart = splitter.getPosition();
+    }
+
+    /**
+     * Splits off the first half of a file, before the traversal has started.
+     *
+     * @return the spliterator over the first half, or {@code null} if this spliterator can't be
+     *         split
+     */
+    @Override
+    public Spliterator<ParsedStatement> trySplit() {
+        if (started || path == null || bytesPerChar() == 0) {
+            return null;
+        }
+        if (boundaries == null) {
+            if (byteEnd - byteBegin < 2 * MINIMUM_SPLIT_SIZE) {
+                return null;
+            }
+            try {
+                boundaries = findBoundaries();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            firstBoundary = 0;
+            lastBoundary = boundaries.count;
+        }
+        if (firstBoundary >= lastBoundary) {
+            return null;
+        }
+        int middle = (firstBoundary + lastBoundary) >>> 1;
+        StatementSpliterator prefix = new StatementSpliterator(path, charset, byteBegin,
+                boundaries.bytes[middle], offset, consumer, configuration);
+        prefix.boundaries = boundaries;
+        prefix.firstBoundary = firstBoundary;
+        prefix.lastBoundary = middle;
+        byteBegin = boundaries.bytes[middle];
+        offset = boundaries.offsets[middle];
+        firstBoundary = middle + 1;
+        return prefix;
+    }
+
+    /**
+     * Scans the whole range once for statement boundaries at least {@link #MINIMUM_SPLIT_SIZE}
+     * bytes apart from each other and from the start of the range.
+     */
+    private Boundaries findBoundaries() throws IOException {
+        Boundaries found = new Boundaries();
+        StatementSplitter scanner = StatementSplitter.of(configuration);
+        char[] chars = new char[BUFFER_SIZE];
+        CharBuffer wrapped = CharBuffer.wrap(chars);
+        long bytes = byteBegin;
+        long previous = byteBegin;
+        try (Reader in = open(byteBegin)) {
+            int limit;
+            while ((limit = in.read(chars)) > 0) {
+                int position = 0;
+                while (position < limit) {
+                    int end = scanner.findEnd(wrapped, position, limit);
+                    int consumed = end < 0 ? limit : end;
+                    bytes += byteLength(chars, position, consumed);
+                    position = consumed;
+                    // never split off an empty range
+                    if (end >= 0 && bytes - previous >= MINIMUM_SPLIT_SIZE && bytes < byteEnd) {
+                        found.add(bytes, offset + scanner.getPosition());
+                        previous = bytes;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private int bytesPerChar() {
+        if (StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset)) {
+            return 1;
+        }
+        // UTF-8 has a variable size, but can be counted exactly
+        return StandardCharsets.UTF_8.equals(charset) ? -1 : 0;
+    }
+
+    private long byteLength(char[] chars, int from, int to) {
+        if (bytesPerChar() == 1) {
+            return to - from;
+        }
+        long length = 0;
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                // a surrogate pair takes 4 bytes
+                length += 2;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private Reader open(long position) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            channel.position(position);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+        return new InputStreamReader(new BoundedInputStream(Channels.newInputStream(channel), byteEnd - position),
+                charset);
+    }
+
+    @Override
+    public long estimateSize() {
+        if (path == null || exhausted) {
+            return exhausted ? 0 : Long.MAX_VALUE;
+        }
+        return Math.max(1, (byteEnd - byteBegin) / ESTIMATED_STATEMENT_SIZE);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+
+    /**
+     * Closes the underlying character stream, which ends the traversal.
+     *
+     * @throws IOException when closing the stream fails
+     */
+    @Override
+    public void close() throws IOException {
+        exhausted = true;
+        buffer = null;
+        wrappedBuffer = null;
+        if (reader != null) {
+            Reader r = reader;
+            reader = null;
+            r.close();
+        }
+    }
+
+    private void closeAfter(IOException cause) {
+        try {
+            close();
+        } catch (IOException ex) {
+            cause.addSuppressed(ex);
+        }
+    }
+
+    /**
+     * The byte and character offsets after statement boundaries, in ascending order.
+     */
+    private static final class Boundaries {
+
+        private long[] bytes = new long[16];
+
+        private long[] offsets = new long[16];
+
+        private int count;
+
+        void add(long byteOffset, long charOffset) {
+            if (count == bytes.length) {
+                bytes = Arrays.copyOf(bytes, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            bytes[count] = byteOffset;
+            offsets[count] = charOffset;
+            count++;
+        }
+    }
+
+    /**
+     * Reads no more than a given number of bytes.
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long remaining) {
+            super(in);
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,544 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import net.sf.jsqlparser.parser.feature.Feature;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+
+/**
+ * Splits a SQL script at its top level statement boundaries without parsing it.
+ * <p>
+ * The splitter is a resumable state machine: the script can be fed in any number of consecutive
+ * chunks and a boundary may span chunks. It respects string literals, quoted identifiers, dollar
+ * quoted bodies and comments and does not split within {@code BEGIN ... END} or
+ * {@code CASE ... END} blocks. Statements are delimited like by the parser's {@code ST_SEMICOLON}
+ * token: by a semicolon, by a line holding only a {@code /} (Oracle) or {@code GO} (SQL Server) or by
+ * three consecutive line breaks. A {@code /} or {@code GO} line always ends a statement, even when the
+ * block tracking got confused. Backslash escapes in literals and identifiers quoted by square
+ * brackets are recognized, if enabled by the {@link FeatureConfiguration} like for the parser. The
+ * lexical rules are shared with the {@link SqlPreScanner}.
+ * <p>
+ * No tokens are built, so a script is split at a fraction of the cost of parsing it.
+ * {@link #split(CharSequence, FeatureConfiguration)} returns the ranges of the statements of a whole
+ * script, for example to dispatch them to parallel workers.
+ * <p>
+ * Positions are absolute offsets in characters from the beginning of the script. An instance is
+ * not thread safe.
+ *
+ * <pre>{@code
+ * StatementSplitter splitter = new StatementSplitter();
+ * int from = 0;
+ * while ((from = splitter.findEnd(script, from, script.length())) >= 0) {
+ *     String sql = script.substring((int) splitter.getStatementBegin(), (int) splitter.getStatementEnd());
+ * }
+ * if (splitter.finish()) {
+ *     String last = script.substring((int) splitter.getStatementBegin(), (int) splitter.getStatementEnd());
+ * }
+ * }</pre>
+ */
+@SuppressWarnings({"PMD.GodClass", "PMD.CyclomaticComplexity"})
+public class StatementSplitter {
+
+    private static final int NORMAL = 0;
+    private static final int SINGLE_QUOTED = 1;
+    private static final int DOUBLE_QUOTED = 2;
+    private static final int BACK_QUOTED = 3;
+    private static final int LINE_COMMENT = 4;
+    private static final int BLOCK_COMMENT = 5;
+    private static final int DOLLAR_QUOTED = 6;
+    private static final int BRACKETED = 7;
+
+    private static final int LINE_EMPTY = 0;
+    private static final int LINE_SLASH = 1;
+    private static final int LINE_GO = 2;
+    private static final int LINE_OTHER = 3;
+
+    // a character, which may start a two character sequence and needs to see the next one
+    private static final char NONE = 0;
+
+    private static final long BEGIN = code("BEGIN");
+    private static final long CASE = code("CASE");
+    private static final long END = code("END");
+    private static final long GO = code("GO");
+    private static final long[] NO_BLOCK_AFTER_BEGIN = {code("TRANSACTION"), code("TRAN"), code("WORK"),
+            code("DEFERRED"), code("IMMEDIATE"), code("EXCLUSIVE"), code("DISTRIBUTED")};
+    private static final long[] NOT_A_BLOCK_END = {code("IF"), code("LOOP"), code("WHILE"), code("REPEAT")};
+
+    private final boolean backslashEscapes;
+    private final boolean squareBrackets;
+
+    private int state = NORMAL;
+    private char pending = NONE;
+    private long position;
+    private long statementStart;
+    private long statementBegin;
+    private long statementEnd;
+
+    private int blockDepth;
+    private boolean pendingBegin;
+    private boolean pendingEnd;
+
+    private long word;
+    private int wordLength;
+
+    private int lineContent = LINE_EMPTY;
+    private long lineStart;
+    private int lineBreaks;
+
+    /**
+     * Creates a splitter for literals without backslash escapes and without identifiers quoted by
+     * square brackets.
+     */
+    public StatementSplitter() {
+        this(false, false);
+    }
+
+    /**
+     * Creates a splitter for the dialect of the given parser configuration.
+     *
+     * @param configuration provides {@link Feature#allowBackslashEscapeCharacter} and
+     *        {@link Feature#allowSquareBracketQuotation}
+     */
+    public StatementSplitter(FeatureConfiguration configuration) {
+        this(configuration.getAsBoolean(Feature.allowBackslashEscapeCharacter),
+                configuration.getAsBoolean(Feature.allowSquareBracketQuotation));
+    }
+
+    private StatementSplitter(boolean backslashEscapes, boolean squareBrackets) {
+        this.backslashEscapes = backslashEscapes;
+        this.squareBrackets = squareBrackets;
+    }
+
+    /**
+     * @param configuration the dialect, may be {@code null} for the default dialect
+     * @return a new splitter for the dialect
+     */
+    static StatementSplitter of(FeatureConfiguration configuration) {
+        return configuration == null ? new StatementSplitter() : new StatementSplitter(configuration);
+    }
+
+    /**
+     * Applies the consumer to a throw-away parser for the dialect the statements will be parsed in.
+     *
+     * @param consumer configures the parser of each statement, may be {@code null}
+     * @return the configuration of the configured parser, or {@code null} for the default dialect
+     */
+    static FeatureConfiguration configurationOf(Consumer<CCJSqlParser> consumer) {
+        if (consumer == null) {
+            return null;
+        }
+        CCJSqlParser parser = CCJSqlParserUtil.newParser("");
+        consumer.accept(parser);
+        return parser.getConfiguration();
+    }
+
+    /**
+     * Splits a whole script at its top level statement boundaries.
+     *
+     * @param script the script
+     * @param configuration the dialect of the script, may be {@code null} for the default dialect
+     * @return the offsets of the first character and after the last character of each statement,
+     *         without the surrounding whitespace and the delimiter, two elements per statement
+     */
+    public static int[] split(CharSequence script, FeatureConfiguration configuration) {
+        StatementSplitter splitter = of(configuration);
+        int[] ranges = new int[16];
+        int count = 0;
+        int from = 0;
+        boolean found;
+        do {
+            from = splitter.findEnd(script, from, script.length());
+            found = from >= 0 || splitter.finish();
+            if (found) {
+                int end = (int) splitter.getStatementEnd();
+                int begin = trimBegin(script, (int) splitter.getStatementBegin(), end);
+                end = trimEnd(script, begin, end);
+                if (begin < end) {
+                    if (count == ranges.length) {
+                        ranges = Arrays.copyOf(ranges, count * 2);
+                    }
+                    ranges[count++] = begin;
+                    ranges[count++] = end;
+                }
+            }
+        } while (from >= 0);
+        return Arrays.copyOf(ranges, count);
+    }
+
+    /**
+     * @return the index of the first non whitespace character of {@code text[begin, end)}, or
+     *         {@code end}
+     */
+    static int trimBegin(CharSequence text, int begin, int end) {
+        int i = begin;
+        while (i < end && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index after the last non whitespace character of {@code text[begin, end)}, or
+     *         {@code begin}
+     */
+    static int trimEnd(CharSequence text, int begin, int end) {
+        int i = end;
+        while (i > begin && Character.isWhitespace(text.charAt(i - 1))) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Scans the characters {@code text[from, to)}, which must continue where the previous call
+     * stopped, until the end of the next statement.
+     *
+     * @param text the chunk of the script
+     * @param from the index of the first character to scan
+     * @param to the index after the last character to scan
+     * @return the index after the delimiter ending the statement, from where scanning continues, or
+     *         -1 if the statement did not end within the given characters
+     */
+    @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    public int findEnd(CharSequence text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            position++;
+            switch (state) {
+                case SINGLE_QUOTED:
+                case DOUBLE_QUOTED:
+                case BACK_QUOTED:
+                case BRACKETED:
+                    // the rest of the literal is skipped in a tight loop
+                    int end = skipQuoted(text, i, to);
+                    position += end - i - 1;
+                    i = end - 1;
+                    break;
+                case LINE_COMMENT:
+                    int lineEnd = SqlLexer.skipLineComment(text, i, to);
+                    position += lineEnd - i - 1;
+                    i = lineEnd - 1;
+                    if (lineEnd < to) {
+                        position++;
+                        i++;
+                        state = NORMAL;
+                        if (newLine()) {
+                            return i + 1;
+                        }
+                    }
+                    break;
+                case BLOCK_COMMENT:
+                case DOLLAR_QUOTED:
+                    int closed = skipDelimited(text, i, to);
+                    position += closed - i - 1;
+                    i = closed - 1;
+                    break;
+                default:
+                    if (normal(c)) {
+                        return i + 1;
+                    }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index after the quote ending the literal or quoted identifier, or {@code to} if it
+     *         did not end
+     */
+    private int skipQuoted(CharSequence text, int from, int to) {
+        char close = state == SINGLE_QUOTED ? '\''
+                : state == DOUBLE_QUOTED ? '"'
+                : state == BACK_QUOTED ? '`' : ']';
+        boolean escapes = backslashEscapes && (state == SINGLE_QUOTED || state == DOUBLE_QUOTED);
+        // a character escaped at the end of the previous chunk
+        int start = pending == '\\' ? from + 1 : from;
+        pending = NONE;
+        int end = SqlLexer.skipQuoted(text, start, to, close, escapes);
+        if (end == SqlLexer.UNTERMINATED) {
+            pending = escapes && SqlLexer.endsWithinEscape(text, start, to) ? '\\' : NONE;
+            return Math.max(start, to);
+        }
+        state = NORMAL;
+        return end;
+    }
+
+    /**
+     * @return the index after the {@code *}{@code /} or {@code $$} ending the comment or the body,
+     *         or {@code to} if it did not end
+     */
+    private int skipDelimited(CharSequence text, int from, int to) {
+        char second = state == BLOCK_COMMENT ? '/' : '$';
+        int end;
+        if (pending != NONE && text.charAt(from) == second) {
+            end = from + 1;
+        } else {
+            end = state == BLOCK_COMMENT
+                    ? SqlLexer.skipBlockComment(text, from, to)
+                    : SqlLexer.skipDollarQuoted(text, from, to);
+        }
+        if (end == SqlLexer.UNTERMINATED) {
+            char last = text.charAt(to - 1);
+            pending = last == (state == BLOCK_COMMENT ? '*' : '$') ? last : NONE;
+            return to;
+        }
+        state = NORMAL;
+        pending = NONE;
+        return end;
+    }
+
+    /**
+     * Completes the script after its last chunk has been scanned.
+     *
+     * @return TRUE, if there is a last statement not ended by a delimiter
+     */
+    public boolean finish() {
+        if (state == NORMAL) {
+            resolvePending();
+            endWord();
+        }
+        statementBegin = statementStart;
+        statementEnd = lineContent == LINE_SLASH || lineContent == LINE_GO ? lineStart : position;
+        statementStart = position;
+        reset();
+        return statementEnd > statementBegin;
+    }
+
+    /**
+     * Forgets all state, so that a new script can be scanned.
+     */
+    public void reset() {
+        state = NORMAL;
+        pending = NONE;
+        blockDepth = 0;
+        pendingBegin = false;
+        pendingEnd = false;
+        wordLength = 0;
+        lineContent = LINE_EMPTY;
+        lineStart = position;
+        lineBreaks = 0;
+    }
+
+    /**
+     * @return the absolute offset of the first character of the last statement found, which may be
+     *         whitespace or a comment
+     */
+    public long getStatementBegin() {
+        return statementBegin;
+    }
+
+    /**
+     * @return the absolute offset after the last character of the last statement found, excluding
+     *         its delimiter
+     */
+    public long getStatementEnd() {
+        return statementEnd;
+    }
+
+    /**
+     * @return the absolute offset of the next character to scan
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * @return TRUE, if the scanner is within a block, a literal or a comment
+     */
+    public boolean isNested() {
+        return state != NORMAL || blockDepth > 0;
+    }
+
+    /**
+     * @return TRUE, if the statement ended
+     */
+    @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.NPathComplexity"})
+    private boolean normal(char c) {
+        char previous = pending;
+        pending = NONE;
+        if (previous == '-' && c == '-') {
+            state = LINE_COMMENT;
+            return false;
+        }
+        if (previous == '/' && c == '*') {
+            state = BLOCK_COMMENT;
+            return false;
+        }
+        if (previous == '$' && c == '$') {
+            state = DOLLAR_QUOTED;
+            return false;
+        }
+        if (previous == '/') {
+            lineContent = lineContent == LINE_EMPTY ? LINE_SLASH : LINE_OTHER;
+        } else if (previous != NONE) {
+            lineContent = LINE_OTHER;
+        }
+
+        if (Character.isLetterOrDigit(c) || c == '_') {
+            appendToWord(c);
+            lineBreaks = 0;
+            return false;
+        }
+        endWord();
+        if (c == '\n') {
+            return newLine();
+        }
+        if (Character.isWhitespace(c)) {
+            return false;
+        }
+        lineBreaks = 0;
+        if (c == ';') {
+            pendingBegin = false;
+            resolvePending();
+            lineContent = LINE_OTHER;
+            return blockDepth == 0 && end(position - 1);
+        }
+        resolvePending();
+        switch (c) {
+            case '\'':
+                state = SINGLE_QUOTED;
+                break;
+            case '"':
+                state = DOUBLE_QUOTED;
+                break;
+            case '`':
+                state = BACK_QUOTED;
+                break;
+            case '[':
+                state = squareBrackets ? BRACKETED : NORMAL;
+                break;
+            case '-':
+            case '/':
+            case '$':
+                pending = c;
+                return false;
+            default:
+        }
+        lineContent = LINE_OTHER;
+        return false;
+    }
+
+    /**
+     * @return TRUE, if the line break ended the statement
+     */
+    private boolean newLine() {
+        if (pending == '/') {
+            pending = NONE;
+            lineContent = lineContent == LINE_EMPTY ? LINE_SLASH : LINE_OTHER;
+        } else if (pending != NONE) {
+            pending = NONE;
+            lineContent = LINE_OTHER;
+        }
+        long start = lineStart;
+        int content = lineContent;
+        lineStart = position;
+        lineContent = LINE_EMPTY;
+        if (content == LINE_SLASH || content == LINE_GO) {
+            // the line ends the statement regardless of any (maybe misinterpreted) block
+            blockDepth = 0;
+            pendingBegin = false;
+            pendingEnd = false;
+            lineBreaks = 0;
+            return end(start);
+        }
+        if (content == LINE_EMPTY) {
+            lineBreaks++;
+        } else {
+            lineBreaks = 1;
+        }
+        // three line breaks in a row, as recognized by the parser
+        return lineBreaks == 3 && blockDepth == 0 && !pendingEnd && end(position - 3);
+    }
+
+    private boolean end(long end) {
+        statementBegin = statementStart;
+        statementEnd = end;
+        statementStart = position;
+        lineBreaks = 0;
+        return true;
+    }
+
+    private void appendToWord(char c) {
+        char upper = Character.toUpperCase(c);
+        if (wordLength < 12 && upper >= 'A' && upper <= 'Z') {
+            word = word << 5 | upper - 'A' + 1;
+        } else {
+            // not a keyword of interest
+            word = -1;
+        }
+        wordLength++;
+    }
+
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private void endWord() {
+        if (wordLength == 0) {
+            return;
+        }
+        long w = wordLength <= 12 ? word : -1;
+        wordLength = 0;
+        word = 0;
+
+        lineContent = lineContent == LINE_EMPTY && w == GO ? LINE_GO : LINE_OTHER;
+        if (pendingEnd) {
+            pendingEnd = false;
+            if (contains(NOT_A_BLOCK_END, w)) {
+                return;
+            }
+            blockDepth = Math.max(0, blockDepth - 1);
+            if (w == CASE) {
+                // END CASE closes the CASE statement
+                return;
+            }
+        }
+        if (pendingBegin) {
+            pendingBegin = false;
+            if (!contains(NO_BLOCK_AFTER_BEGIN, w)) {
+                blockDepth++;
+            }
+        }
+        if (w == BEGIN) {
+            pendingBegin = true;
+        } else if (w == CASE) {
+            blockDepth++;
+        } else if (w == END) {
+            pendingEnd = true;
+        }
+    }
+
+    private void resolvePending() {
+        if (pendingEnd) {
+            pendingEnd = false;
+            blockDepth = Math.max(0, blockDepth - 1);
+        }
+        if (pendingBegin) {
+            pendingBegin = false;
+            blockDepth++;
+        }
+    }
+
+    private static boolean contains(long[] words, long w) {
+        for (long candidate : words) {
+            if (candidate == w) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long code(String keyword) {
+        long code = 0;
+        for (int i = 0; i < keyword.length(); i++) {
+            code = code << 5 | keyword.charAt(i) - 'A' + 1;
+        }
+        return code;
+    }
+}
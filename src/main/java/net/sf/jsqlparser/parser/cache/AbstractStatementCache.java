@@ -0,0 +1,227 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+
+/**
+ * The bounded, thread safe storage shared by the statement caches. Values are stored under a
+ * {@link Key} of a SQL text and a {@link FeatureConfiguration}, the cache is bounded by the number
+ * of entries and by their total weight and delegates the choice of the entries to evict to an
+ * {@link EvictionPolicy}.
+ *
+ * @param <V> the type of the cached values
+ */
+public abstract class AbstractStatementCache<V> {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10000;
+
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+
+    private final int maximumSize;
+
+    private final long maximumWeight;
+
+    private final EvictionPolicy<Key> evictionPolicy;
+
+    private final Map<Key, Entry<V>> entries = new HashMap<>();
+
+    private long weight;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    /**
+     * @param maximumSize the maximum number of cached entries
+     * @param maximumWeight the maximum total weight of the cached entries in bytes
+     * @param evictionPolicy the policy deciding which entry to evict, exclusively used by this
+     *        cache
+     */
+    protected AbstractStatementCache(int maximumSize, long maximumWeight, EvictionPolicy<Key> evictionPolicy) {
+        if (maximumSize < 0 || maximumWeight < 0) {
+            throw new IllegalArgumentException("The maximum size and weight must not be negative.");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWeight = maximumWeight;
+        this.evictionPolicy = Objects.requireNonNull(evictionPolicy, "evictionPolicy");
+    }
+
+    /**
+     * @param value the value to weigh
+     * @return the approximate size of the value in bytes
+     */
+    protected abstract long weigh(V value);
+
+    /**
+     * @param key the key to look up
+     * @return the cached value or <code>null</code>, counted as hit or miss
+     */
+    protected V get(Key key) {
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                missCount++;
+                return null;
+            }
+            hitCount++;
+            evictionPolicy.recordAccess(entry.key);
+            return entry.value;
+        }
+    }
+
+    /**
+     * Stores a value and evicts other entries as long as the bounds are exceeded. Values exceeding
+     * the maximum weight on their own are not stored at all.
+     *
+     * @param key the key, which may refer to a configuration modified later by the caller
+     * @param value the value to store
+     */
+    protected void put(Key key, V value) {
+        Entry<V> entry = new Entry<>(key.snapshot(), value, 2L * key.sql.length() + weigh(value));
+        if (maximumSize == 0 || entry.weight > maximumWeight) {
+            return;
+        }
+        synchronized (this) {
+            Entry<V> previous = entries.put(entry.key, entry);
+            if (previous != null) {
+                weight -= previous.weight;
+                evictionPolicy.recordRemoval(previous.key);
+            }
+            weight += entry.weight;
+            evictionPolicy.recordInsertion(entry.key);
+            while (entries.size() > maximumSize || weight > maximumWeight) {
+                Key victim = evictionPolicy.nextVictim();
+                if (victim == null) {
+                    break;
+                }
+                remove(victim);
+                evictionCount++;
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+        evictionPolicy.recordRemoval(key);
+    }
+
+    /**
+     * Removes all entries, but keeps the counters.
+     */
+    public synchronized void invalidateAll() {
+        for (Key key : entries.keySet().toArray(new Key[0])) {
+            remove(key);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of the cached entries in bytes
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * The key of a cached entry: the SQL text and a snapshot of the configuration it was parsed
+     * with.
+     */
+    public static final class Key {
+
+        private final String sql;
+
+        private final FeatureConfiguration configuration;
+
+        private final int hashCode;
+
+        Key(String sql, FeatureConfiguration configuration) {
+            this(sql, configuration, 31 * sql.hashCode() + configuration.hashCode());
+        }
+
+        private Key(String sql, FeatureConfiguration configuration, int hashCode) {
+            this.sql = sql;
+            this.configuration = configuration;
+            this.hashCode = hashCode;
+        }
+
+        Key snapshot() {
+            return new Key(sql, new FeatureConfiguration(configuration), hashCode);
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode && sql.equals(other.sql)
+                    && configuration.equals(other.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final Key key;
+
+        private final V value;
+
+        private final long weight;
+
+        Entry(Key key, V value, long weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+/**
+ * Decides which entry a {@link StatementCache} evicts when it exceeds its bounds. The cache
+ * reports every insertion, access and removal of a key and calls the policy only while holding its
+ * lock, so implementations do not need to be thread safe. An instance must not be shared between
+ * caches.
+ *
+ * @param <K> the type of the cache keys
+ */
+public interface EvictionPolicy<K> {
+
+    /**
+     * @param key the key, which has been added to the cache
+     */
+    void recordInsertion(K key);
+
+    /**
+     * @param key the key, which has been found in the cache
+     */
+    void recordAccess(K key);
+
+    /**
+     * @param key the key, which has been removed from the cache
+     */
+    void recordRemoval(K key);
+
+    /**
+     * @return the key to evict next or <code>null</code>, if there are no keys to evict
+     */
+    K nextVictim();
+
+    /**
+     * @param <K> the type of the cache keys
+     * @return a policy evicting the least recently used entry first
+     */
+    static <K> EvictionPolicy<K> leastRecentlyUsed() {
+        return new LruEvictionPolicy<>();
+    }
+
+    /**
+     * @param <K> the type of the cache keys
+     * @return a policy evicting the oldest entry first, regardless of its use
+     */
+    static <K> EvictionPolicy<K> firstInFirstOut() {
+        return new FifoEvictionPolicy<>();
+    }
+}
@@ -0,0 +1,47 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Evicts the least recently used key first.
+ *
+ * @param <K> the type of the cache keys
+ */
+public class LruEvictionPolicy<K> implements EvictionPolicy<K> {
+
+    private final LinkedHashSet<K> keys = new LinkedHashSet<>();
+
+    @Override
+    public void recordInsertion(K key) {
+        keys.remove(key);
+        keys.add(key);
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        if (keys.remove(key)) {
+            keys.add(key);
+        }
+    }
+
+    @Override
+    public void recordRemoval(K key) {
+        keys.remove(key);
+    }
+
+    @Override
+    public K nextVictim() {
+        Iterator<K> iterator = keys.iterator();
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
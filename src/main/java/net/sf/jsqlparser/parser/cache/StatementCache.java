@@ -0,0 +1,148 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParser;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import net.sf.jsqlparser.statement.Statement;
+
+/**
+ * An opt-in cache of parsed {@link Statement} trees for applications, which parse the same SQL
+ * text over and over again.
+ * <p>
+ * Entries are keyed by the SQL text and the effective {@link FeatureConfiguration}. The cache holds
+ * a private copy of each parsed tree and every hit returns a fresh copy of it, made field by field
+ * without parsing, which the caller may modify freely without corrupting the cache. The cache is
+ * bounded by the number of entries and by their weight, which is the approximate size in bytes of
+ * the SQL text and of the cached tree. Which entries get evicted is decided by a pluggable
+ * {@link EvictionPolicy}, least recently used by default.
+ * <p>
+ * The copies keep the source spans of {@link net.sf.jsqlparser.parser.ASTNodeAccess#getSourceText()},
+ * but not the jjtree nodes: {@link net.sf.jsqlparser.parser.ASTNodeAccess#getASTNode()} returns
+ * <code>null</code> for the statements returned by a hit. Sub-selects skipped with
+ * {@link net.sf.jsqlparser.parser.feature.Feature#lazySubqueries} are copied unparsed and parsed on
+ * first access of each copy.
+ * <p>
+ * Statements, which fail to parse, are not cached, neither are trees holding objects, which can't
+ * be copied, e.g. collections of unknown types set by the application.
+ */
+public class StatementCache extends AbstractStatementCache<StatementCache.CachedStatement> {
+
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private final FeatureConfiguration defaultConfiguration = FeatureConfiguration.DEFAULT;
+
+    public StatementCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * @param maximumSize the maximum number of cached statements
+     * @param maximumWeight the maximum total weight of the cached statements in bytes
+     */
+    public StatementCache(int maximumSize, long maximumWeight) {
+        this(maximumSize, maximumWeight, EvictionPolicy.leastRecentlyUsed());
+    }
+
+    /**
+     * @param maximumSize the maximum number of cached statements
+     * @param maximumWeight the maximum total weight of the cached statements in bytes
+     * @param evictionPolicy the policy deciding which statement to evict, exclusively used by this
+     *        cache
+     */
+    public StatementCache(int maximumSize, long maximumWeight, EvictionPolicy<Key> evictionPolicy) {
+        super(maximumSize, maximumWeight, evictionPolicy);
+    }
+
+    /**
+     * Parses a statement with the default {@link FeatureConfiguration} like
+     * {@link CCJSqlParserUtil#parse(String)}.
+     *
+     * @param sql the SQL text of the statement
+     * @return the parsed statement, owned by the caller
+     * @throws JSQLParserException when the statement can't be parsed
+     */
+    public Statement parse(String sql) throws JSQLParserException {
+        return parse(sql, defaultConfiguration);
+    }
+
+    /**
+     * @param sql the SQL text of the statement
+     * @param configuration the configuration to parse with, which will not be modified
+     * @return the parsed statement, owned by the caller
+     * @throws JSQLParserException when the statement can't be parsed
+     */
+    public Statement parse(String sql, FeatureConfiguration configuration) throws JSQLParserException {
+        Key key = new Key(sql, configuration);
+        CachedStatement cached = get(key);
+        if (cached != null) {
+            try {
+                return new TreeCopier().copy(cached.statement);
+            } catch (TreeCopier.UncopyableException ex) {
+                throw new JSQLParserException("Could not copy the cached statement.", ex);
+            }
+        }
+        Statement statement = CCJSqlParserUtil.parse(sql,
+                parser -> parser.withConfiguration(new FeatureConfiguration(configuration)));
+        try {
+            TreeCopier copier = new TreeCopier();
+            Statement copy = copier.copy(statement);
+            put(key, new CachedStatement(copy, copier.getWeight()));
+        } catch (TreeCopier.UncopyableException ex) {
+            LOGGER.log(Level.FINE, "Statement can't be cached.", ex);
+        }
+        return statement;
+    }
+
+    /**
+     * Parses a statement like {@link CCJSqlParserUtil#parse(String, Consumer)}. Only the
+     * {@link FeatureConfiguration} set up by the consumer is part of the cache key, so the consumer
+     * must not change the parser in any other way. The consumer is applied to a throw-away parser
+     * for determining the key, so {@link #parse(String, FeatureConfiguration)} is cheaper.
+     *
+     * @param sql the SQL text of the statement
+     * @param consumer the consumer configuring the parser, can be <code>null</code>
+     * @return the parsed statement, owned by the caller
+     * @throws JSQLParserException when the statement can't be parsed
+     */
+    public Statement parse(String sql, Consumer<CCJSqlParser> consumer) throws JSQLParserException {
+        if (consumer == null) {
+            return parse(sql);
+        }
+        CCJSqlParser parser = CCJSqlParserUtil.newParser("");
+        consumer.accept(parser);
+        return parse(sql, parser.getConfiguration());
+    }
+
+    @Override
+    protected long weigh(CachedStatement value) {
+        return value.weight;
+    }
+
+    /**
+     * A cached tree, which is only copied and never handed out.
+     */
+    static final class CachedStatement {
+
+        private final Statement statement;
+
+        private final long weight;
+
+        CachedStatement(Statement statement, long weight) {
+            this.statement = statement;
+            this.weight = weight;
+        }
+    }
+}
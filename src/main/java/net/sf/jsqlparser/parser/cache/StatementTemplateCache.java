@@ -0,0 +1,596 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.DoubleValue;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.StringValue;
+import net.sf.jsqlparser.parser.ASTNodeAccess;
+import net.sf.jsqlparser.parser.CCJSqlParserConstants;
+import net.sf.jsqlparser.parser.CCJSqlParserTokenManager;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.parser.SimpleCharStream;
+import net.sf.jsqlparser.parser.StringProvider;
+import net.sf.jsqlparser.parser.Token;
+import net.sf.jsqlparser.parser.TokenMgrException;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import net.sf.jsqlparser.statement.Statement;
+
+/**
+ * A cache of statement templates for applications, which send the same statement shapes with
+ * different literal values, e.g. {@code WHERE id = 17} and {@code WHERE id = 42}.
+ * <p>
+ * A statement is only tokenized, its number and string literals are replaced by slots and the
+ * resulting template text together with the {@link FeatureConfiguration} forms the cache key. The
+ * first statement of a shape is parsed completely and then once more with unique probe values in
+ * the slots, which reveals the {@link LongValue}, {@link DoubleValue} and {@link StringValue}
+ * expressions created from each slot. Any later statement of the same shape is served from a copy
+ * of the cached tree made field by field, in which these expressions are replaced by new ones
+ * holding its own literal values, without running the parser at all. The source spans of the copies
+ * are moved onto the text of the later statement, the jjtree nodes are not kept.
+ * <p>
+ * Literals, which the parser does not turn into such an expression (e.g. a length in
+ * {@code VARCHAR(10)} or a {@code FETCH FIRST 5 ROWS} count), remain fixed parts of the template:
+ * a statement differing in such a literal is parsed completely, counted by
+ * {@link #getFallbackCount()}. The same happens to shapes, for which the slots can't be determined
+ * reliably.
+ * <p>
+ * The first statement of a shape costs up to three complete parses, of the statement, of the probe
+ * statement and of a verification statement, and a few walks over the tree. While a Thread builds
+ * the template of a shape, other Threads parse statements of that shape completely instead of
+ * building it again. A shape, for which no reliable template can be built, is not cached: it is
+ * remembered in a small table of fingerprints, so that its statements are parsed completely right
+ * away instead of trying to build its template again.
+ */
+public class StatementTemplateCache extends AbstractStatementCache<StatementTemplateCache.Template> {
+
+    private static final String STRING_PROBE = "__jsqlparser_slot_";
+
+    private static final long NUMBER_PROBE = 1000000000L;
+
+    private static final char SLOT_MARKER = '\0';
+
+    private static final int UNBINDABLE_CAPACITY = 1024;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final FeatureConfiguration defaultConfiguration = FeatureConfiguration.DEFAULT;
+
+    private final AtomicLong fallbackCount = new AtomicLong();
+
+    // the shapes, whose templates are being built by a Thread
+    private final Map<Key, Thread> building = new ConcurrentHashMap<>();
+
+    // the fingerprints of the shapes without a reliable template, a newer one replaces an older one
+    private final AtomicLongArray unbindable = new AtomicLongArray(UNBINDABLE_CAPACITY);
+
+    public StatementTemplateCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_MAXIMUM_WEIGHT);
+    }
+
+    /**
+     * @param maximumSize the maximum number of cached templates
+     * @param maximumWeight the maximum total weight of the cached templates in bytes
+     */
+    public StatementTemplateCache(int maximumSize, long maximumWeight) {
+        this(maximumSize, maximumWeight, EvictionPolicy.leastRecentlyUsed());
+    }
+
+    /**
+     * @param maximumSize the maximum number of cached templates
+     * @param maximumWeight the maximum total weight of the cached templates in bytes
+     * @param evictionPolicy the policy deciding which template to evict, exclusively used by this
+     *        cache
+     */
+    public StatementTemplateCache(int maximumSize, long maximumWeight, EvictionPolicy<Key> evictionPolicy) {
+        super(maximumSize, maximumWeight, evictionPolicy);
+    }
+
+    /**
+     * Parses a statement with the default {@link FeatureConfiguration} like
+     * {@link CCJSqlParserUtil#parse(String)}.
+     *
+     * @param sql the SQL text of the statement
+     * @return the parsed statement, owned by the caller
+     * @throws JSQLParserException when the statement can't be parsed
+     */
+    public Statement parse(String sql) throws JSQLParserException {
+        return parse(sql, defaultConfiguration);
+    }
+
+    /**
+     * @param sql the SQL text of the statement
+     * @param configuration the configuration to parse with, which will not be modified
+     * @return the parsed statement, owned by the caller
+     * @throws JSQLParserException when the statement can't be parsed
+     */
+    public Statement parse(String sql, FeatureConfiguration configuration) throws JSQLParserException {
+        Shape shape = Shape.of(sql, configuration);
+        if (shape == null) {
+            fallbackCount.incrementAndGet();
+            return parseCompletely(sql, configuration);
+        }
+        Key key = new Key(shape.template, configuration);
+        long fingerprint = fingerprint(shape.template, configuration);
+        if (isUnbindable(fingerprint)) {
+            fallbackCount.incrementAndGet();
+            return parseCompletely(sql, configuration);
+        }
+        Template template = get(key);
+        if (template != null) {
+            Statement statement = bind(template, shape);
+            if (statement == null) {
+                fallbackCount.incrementAndGet();
+                return parseCompletely(sql, configuration);
+            }
+            return statement;
+        }
+        if (building.putIfAbsent(key, Thread.currentThread()) != null) {
+            // another Thread builds the template of this shape
+            return parseCompletely(sql, configuration);
+        }
+        try {
+            Statement statement = parseCompletely(sql, configuration);
+            template = Template.of(shape, statement, configuration);
+            if (template != null) {
+                put(key, template);
+            } else {
+                unbindable.set(slot(fingerprint), fingerprint);
+            }
+            return statement;
+        } finally {
+            building.remove(key);
+        }
+    }
+
+    /**
+     * @return a copy of the tree of the template bound to the literals of the shape, or
+     *         <code>null</code> when they don't fit the template
+     */
+    private static Statement bind(Template template, Shape shape) throws JSQLParserException {
+        if (!template.matches(shape.images)) {
+            return null;
+        }
+        try {
+            return template.instantiate(shape);
+        } catch (TreeCopier.UncopyableException ex) {
+            throw new JSQLParserException("Could not copy the cached statement.", ex);
+        }
+    }
+
+    private boolean isUnbindable(long fingerprint) {
+        return unbindable.get(slot(fingerprint)) == fingerprint;
+    }
+
+    private static int slot(long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & (UNBINDABLE_CAPACITY - 1);
+    }
+
+    /**
+     * @return a 64 bit hash of the template text and the configuration, never 0
+     */
+    private static long fingerprint(String template, FeatureConfiguration configuration) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < template.length(); i++) {
+            hash = (hash ^ template.charAt(i)) * FNV_PRIME;
+        }
+        hash = (hash ^ configuration.hashCode()) * FNV_PRIME;
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * @return the number of statements, which had to be parsed completely although their shape has
+     *         been seen before or could not be determined
+     */
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+
+    @Override
+    protected long weigh(Template value) {
+        return value.weigh();
+    }
+
+    private static Statement parseCompletely(String sql, FeatureConfiguration configuration) throws JSQLParserException {
+        return CCJSqlParserUtil.parse(sql, parser -> parser.withConfiguration(new FeatureConfiguration(configuration)));
+    }
+
+    private static boolean isLiteral(int kind) {
+        return kind == CCJSqlParserConstants.S_LONG || kind == CCJSqlParserConstants.S_DOUBLE
+                || kind == CCJSqlParserConstants.S_CHAR_LITERAL;
+    }
+
+    /**
+     * The tokenized form of a statement: its text with the literals replaced by slots and the
+     * literals themselves.
+     */
+    private static final class Shape {
+
+        private final String sql;
+
+        private final String template;
+
+        private final int[] kinds;
+
+        private final int[] begins;
+
+        private final String[] images;
+
+        private Shape(String sql, String template, int[] kinds, int[] begins, String[] images) {
+            this.sql = sql;
+            this.template = template;
+            this.kinds = kinds;
+            this.begins = begins;
+            this.images = images;
+        }
+
+        /**
+         * @return the shape or <code>null</code>, when the statement can't be tokenized reliably
+         */
+        static Shape of(String sql, FeatureConfiguration configuration) {
+            CCJSqlParserTokenManager tokenManager = new CCJSqlParserTokenManager(
+                    new SimpleCharStream(new StringProvider(sql)));
+            tokenManager.configuration = configuration;
+            StringBuilder template = new StringBuilder(sql.length());
+            List<Token> literals = new ArrayList<>();
+            int position = 0;
+            try {
+                for (Token token = tokenManager.getNextToken(); token.kind != CCJSqlParserConstants.EOF;
+                        token = tokenManager.getNextToken()) {
+                    if (isLiteral(token.kind)) {
+                        // the absolute position of a token is 1-based
+                        int begin = token.absoluteBegin - 1;
+                        if (begin < position || !sql.startsWith(token.image, begin)) {
+                            return null;
+                        }
+                        template.append(sql, position, begin).append(SLOT_MARKER).append((char) token.kind);
+                        position = begin + token.image.length();
+                        literals.add(token);
+                    }
+                }
+            } catch (TokenMgrException ex) {
+                return null;
+            }
+            template.append(sql, position, sql.length());
+
+            int[] kinds = new int[literals.size()];
+            int[] begins = new int[literals.size()];
+            String[] images = new String[literals.size()];
+            for (int i = 0; i < kinds.length; i++) {
+                Token token = literals.get(i);
+                kinds[i] = token.kind;
+                begins[i] = token.absoluteBegin - 1;
+                images[i] = token.image;
+            }
+            return new Shape(sql, template.toString(), kinds, begins, images);
+        }
+
+        /**
+         * @param replacements the new image of every slot
+         * @return the shape of the statement text with the literals replaced
+         */
+        Shape bind(String[] replacements) {
+            StringBuilder builder = new StringBuilder(sql.length() + 16 * images.length);
+            int[] replacedBegins = new int[images.length];
+            int position = 0;
+            for (int i = 0; i < images.length; i++) {
+                builder.append(sql, position, begins[i]);
+                replacedBegins[i] = builder.length();
+                builder.append(replacements[i]);
+                position = begins[i] + images[i].length();
+            }
+            builder.append(sql, position, sql.length());
+            return new Shape(builder.toString(), template, kinds, replacedBegins, replacements);
+        }
+
+        /**
+         * @return a unique image of the same token kind for every slot, the original image if the
+         *         literal can't be replaced
+         */
+        String[] probes() {
+            String[] probes = new String[images.length];
+            for (int i = 0; i < probes.length; i++) {
+                String probe = probe(i);
+                probes[i] = probe != null ? probe : images[i];
+            }
+            return probes;
+        }
+
+        /**
+         * @return a unique image of the same token kind for the given slot or <code>null</code>,
+         *         when the literal can't be replaced
+         */
+        String probe(int slot) {
+            switch (kinds[slot]) {
+                case CCJSqlParserConstants.S_LONG:
+                    return String.valueOf(NUMBER_PROBE + slot);
+                case CCJSqlParserConstants.S_DOUBLE:
+                    return (NUMBER_PROBE + slot) + ".5";
+                default:
+                    String image = images[slot];
+                    int quote = image.indexOf('\'');
+                    // Oracle's alternative quoting q'{...}' can't be replaced reliably
+                    if (quote < 0 || !image.endsWith("'") || image.regionMatches(true, 0, "q'", 0, 2)) {
+                        return null;
+                    }
+                    return image.substring(0, quote + 1) + STRING_PROBE + slot + "'";
+            }
+        }
+    }
+
+    /**
+     * A parsed statement of a certain shape together with the literal expressions bound to its
+     * slots.
+     */
+    public static final class Template {
+
+        // a private copy of the parsed statement, which is only copied and never handed out
+        private final Statement tree;
+
+        private final long treeWeight;
+
+        private final int[] kinds;
+
+        // the offset after every slot in the source text of the tree
+        private final int[] ends;
+
+        // the slot of every literal expression of the tree bound to one, by identity
+        private final Map<Object, Integer> slotOfLiteral;
+
+        // the image of every slot, which has not been found in the tree, otherwise null
+        private final String[] fixedImages;
+
+        private Template(Statement tree, long treeWeight, int[] kinds, int[] ends, Map<Object, Integer> slotOfLiteral,
+                String[] fixedImages) {
+            this.tree = tree;
+            this.treeWeight = treeWeight;
+            this.kinds = kinds;
+            this.ends = ends;
+            this.slotOfLiteral = slotOfLiteral;
+            this.fixedImages = fixedImages;
+        }
+
+        /**
+         * @return the template or <code>null</code>, when the slots can't be bound reliably
+         */
+        static Template of(Shape shape, Statement statement, FeatureConfiguration configuration) {
+            try {
+                TreeCopier copier = new TreeCopier();
+                Statement tree = copier.copy(statement);
+
+                // parse once more with unique values in all slots and look for them in the tree
+                String[] probes = shape.probes();
+                Statement probeStatement = parseCompletely(shape.bind(probes).sql, configuration);
+                List<Object> probeLiterals = literalsOf(probeStatement);
+                List<Object> literals = literalsOf(tree);
+                int[] slots = locateSlots(shape, probes, probeLiterals, literals);
+                if (slots == null) {
+                    return null;
+                }
+                Map<Object, Integer> slotOfLiteral = new IdentityHashMap<>();
+                String[] fixedImages = shape.images.clone();
+                for (int k = 0; k < slots.length; k++) {
+                    if (slots[k] >= 0) {
+                        slotOfLiteral.put(literals.get(k), slots[k]);
+                        fixedImages[slots[k]] = null;
+                    }
+                }
+                int[] ends = new int[shape.begins.length];
+                for (int i = 0; i < ends.length; i++) {
+                    ends[i] = shape.begins[i] + shape.images[i].length();
+                }
+                Template template =
+                        new Template(tree, copier.getWeight(), shape.kinds, ends, slotOfLiteral, fixedImages);
+                return template.verify(shape, statement, probes, probeStatement, configuration)
+                        ? template
+                        : null;
+            } catch (TreeCopier.UncopyableException | JSQLParserException ex) {
+                return null;
+            }
+        }
+
+        /**
+         * @return the literal expressions of the tree in the order of a copy, which is the same for
+         *         trees of the same structure
+         */
+        private static List<Object> literalsOf(Statement statement) throws TreeCopier.UncopyableException {
+            List<Object> literals = new ArrayList<>();
+            new TreeCopier(object -> {
+                if (object instanceof LongValue || object instanceof DoubleValue || object instanceof StringValue) {
+                    literals.add(object);
+                }
+                return null;
+            }).copy(statement);
+            return literals;
+        }
+
+        /**
+         * @return the classes of the objects of the tree in the order of a copy
+         */
+        private static List<Class<?>> classesOf(Statement statement) throws TreeCopier.UncopyableException {
+            List<Class<?>> classes = new ArrayList<>();
+            new TreeCopier(object -> {
+                classes.add(object.getClass());
+                return null;
+            }).copy(statement);
+            return classes;
+        }
+
+        /**
+         * Verifies, that a statement bound from the template equals a completely parsed one, both for
+         * the values of the statement itself and for the probes. A slot might have been used by the
+         * parser in places beyond the literal expression. When all the probed slots have been found,
+         * the statement parsed with the probes is the reference, otherwise the statement with the
+         * probes in the found slots only is parsed for it.
+         */
+        private boolean verify(Shape shape, Statement statement, String[] probes, Statement probeStatement,
+                FeatureConfiguration configuration) throws TreeCopier.UncopyableException, JSQLParserException {
+            if (!matches(shape, statement)) {
+                return false;
+            }
+            String[] verification = shape.images.clone();
+            for (int i = 0; i < verification.length; i++) {
+                if (fixedImages[i] == null) {
+                    verification[i] = probes[i];
+                }
+            }
+            Shape bound = shape.bind(verification);
+            Statement expected = Arrays.equals(verification, probes)
+                    ? probeStatement
+                    : parseCompletely(bound.sql, configuration);
+            return matches(bound, expected);
+        }
+
+        private boolean matches(Shape shape, Statement expected) throws TreeCopier.UncopyableException {
+            Statement actual = instantiate(shape);
+            return actual != null && expected.toString().equals(actual.toString())
+                    && classesOf(expected).equals(classesOf(actual));
+        }
+
+        /**
+         * @return the slot of every literal expression or -1, <code>null</code> if the trees don't
+         *         match
+         */
+        private static int[] locateSlots(Shape shape, String[] probes, List<Object> probeLiterals,
+                List<Object> literals) {
+            if (probeLiterals.size() != literals.size()) {
+                return null;
+            }
+            Map<String, Integer> slotOfProbe = new HashMap<>();
+            for (int i = 0; i < probes.length; i++) {
+                if (!probes[i].equals(shape.images[i])) {
+                    slotOfProbe.put(probes[i].toUpperCase(Locale.ROOT), i);
+                }
+            }
+            int[] slotOfLiteral = new int[literals.size()];
+            for (int k = 0; k < slotOfLiteral.length; k++) {
+                Object probeLiteral = probeLiterals.get(k);
+                if (probeLiteral.getClass() != literals.get(k).getClass()) {
+                    return null;
+                }
+                Integer slot = slotOfProbe.get(imageOf(probeLiteral).toUpperCase(Locale.ROOT));
+                boolean bound = slot != null && probeLiteral.getClass() == literalClass(shape.kinds[slot]);
+                slotOfLiteral[k] = bound ? slot : -1;
+            }
+            return slotOfLiteral;
+        }
+
+        boolean matches(String[] images) {
+            for (int i = 0; i < images.length; i++) {
+                if (fixedImages[i] != null && !fixedImages[i].equals(images[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @param shape the statement to bind, which must match the template
+         * @return a copy of the tree with new literal expressions created from the images exactly as
+         *         the parser would do and with the source spans moved onto the text of the statement,
+         *         <code>null</code> when an image can't be bound
+         */
+        Statement instantiate(Shape shape) throws TreeCopier.UncopyableException {
+            boolean[] unbindable = new boolean[1];
+            Statement statement = new TreeCopier(object -> {
+                Integer slot = slotOfLiteral.get(object);
+                if (slot == null) {
+                    return null;
+                }
+                Object literal = literal(kinds[slot], shape.images[slot]);
+                if (literal == null) {
+                    unbindable[0] = true;
+                    return object;
+                }
+                if (((ASTNodeAccess) object).getSourceBegin() >= 0) {
+                    int begin = shape.begins[slot];
+                    ((ASTNodeAccess) literal).setSourceSpan(shape.sql, begin, begin + shape.images[slot].length());
+                }
+                return literal;
+            }, shape.sql, offset -> rebase(offset, shape)).copy(tree);
+            return unbindable[0] ? null : statement;
+        }
+
+        /**
+         * @return the offset in the text of the shape, which corresponds to the offset in the source
+         *         text of the tree
+         */
+        private int rebase(int offset, Shape shape) {
+            int shift = 0;
+            for (int i = 0; i < ends.length && ends[i] <= offset; i++) {
+                shift = shape.begins[i] + shape.images[i].length() - ends[i];
+            }
+            return offset + shift;
+        }
+
+        long weigh() {
+            // an entry of the identity map takes two references
+            long weight = treeWeight + 8L * kinds.length + 16L * slotOfLiteral.size();
+            for (String image : fixedImages) {
+                weight += image == null ? 0 : 2L * image.length();
+            }
+            return weight;
+        }
+
+        /**
+         * @return the literal expression or <code>null</code>, when it does not reproduce the image
+         */
+        private static Object literal(int kind, String image) {
+            Object literal;
+            try {
+                switch (kind) {
+                    case CCJSqlParserConstants.S_LONG:
+                        literal = new LongValue(image);
+                        break;
+                    case CCJSqlParserConstants.S_DOUBLE:
+                        literal = new DoubleValue(image);
+                        break;
+                    default:
+                        literal = new StringValue(image);
+                }
+            } catch (RuntimeException ex) {
+                return null;
+            }
+            return imageOf(literal).equalsIgnoreCase(image) ? literal : null;
+        }
+
+        private static Class<?> literalClass(int kind) {
+            switch (kind) {
+                case CCJSqlParserConstants.S_LONG:
+                    return LongValue.class;
+                case CCJSqlParserConstants.S_DOUBLE:
+                    return DoubleValue.class;
+                default:
+                    return StringValue.class;
+            }
+        }
+
+        private static String imageOf(Object literal) {
+            if (literal instanceof StringValue) {
+                StringValue value = (StringValue) literal;
+                return (value.getPrefix() != null ? value.getPrefix() : "") + "'" + value.getValue() + "'";
+            }
+            return literal.toString();
+        }
+    }
+}
@@ -0,0 +1,593 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntUnaryOperator;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+import net.sf.jsqlparser.parser.ASTNodeAccess;
+import net.sf.jsqlparser.parser.Node;
+
+/**
+ * Copies a tree of parsed objects field by field, which is an order of magnitude cheaper than
+ * parsing the statement again or a round trip through the Java serialization.
+ * <p>
+ * A copy is created by the constructor with the fewest parameters, which accepts default values,
+ * and all its fields are overwritten afterwards. The identity of objects referenced more than once
+ * is kept. Strings, boxed primitives, enums and other immutable values of the JDK are shared, the
+ * collections of the JDK are copied into collections of the same class, e.g. a list of
+ * {@link Arrays#asList(Object...)} or {@link Collections#unmodifiableList(List)} remains such a list.
+ * A tree holding any other collection of the JDK can't be copied. The values of transient fields
+ * are shared as well, e.g. the source text of
+ * {@link net.sf.jsqlparser.parser.ASTNodeAccess#getSourceText()}, except for the jjtree nodes:
+ * they point back to the objects parsed with them and are not kept in a copy. The source spans can
+ * be moved onto another source text instead.
+ * <p>
+ * Only the classes of JSqlParser itself are copied this way, a tree holding an object of any other
+ * class can't be copied. Their constructors are called with the simplest values, e.g. an empty
+ * string or list, to find the one to use, so they must not depend on their arguments for anything
+ * but the initial values of their fields.
+ * <p>
+ * An instance copies a single tree.
+ */
+@SuppressWarnings("PMD.CyclomaticComplexity")
+final class TreeCopier {
+
+    // the estimated size of an object header and of a field or an array element
+    private static final int HEADER_SIZE = 16;
+
+    private static final int REFERENCE_SIZE = 8;
+
+    private static final Map<Class<?>, Plan> PLANS = new ConcurrentHashMap<>();
+
+    private static final Class<?> ARRAYS_LIST = Arrays.asList().getClass();
+
+    private static final Class<?> SINGLETON_LIST = Collections.singletonList(null).getClass();
+
+    private static final Class<?> SINGLETON_SET = Collections.singleton(null).getClass();
+
+    private static final Class<?> SINGLETON_MAP = Collections.singletonMap(null, null).getClass();
+
+    private static final Class<?> UNMODIFIABLE_COLLECTION =
+            Collections.unmodifiableCollection(new ArrayList<>()).getClass();
+
+    private static final Class<?> UNMODIFIABLE_LIST = Collections.unmodifiableList(new LinkedList<>()).getClass();
+
+    private static final Class<?> UNMODIFIABLE_RANDOM_ACCESS_LIST =
+            Collections.unmodifiableList(new ArrayList<>()).getClass();
+
+    private static final Class<?> UNMODIFIABLE_SET = Collections.unmodifiableSet(new HashSet<>()).getClass();
+
+    private static final Class<?> UNMODIFIABLE_SORTED_SET =
+            Collections.unmodifiableSortedSet(new TreeSet<>()).getClass();
+
+    private static final Class<?> UNMODIFIABLE_MAP = Collections.unmodifiableMap(new HashMap<>()).getClass();
+
+    private static final Class<?> UNMODIFIABLE_SORTED_MAP =
+            Collections.unmodifiableSortedMap(new TreeMap<>()).getClass();
+
+    // the immutable empty collections, which are shared
+    private static final Set<Class<?>> EMPTY_COLLECTIONS = new HashSet<>(Arrays.asList(
+            Collections.emptyList().getClass(), Collections.emptySet().getClass(),
+            Collections.emptyMap().getClass()));
+
+    private final UnaryOperator<Object> substitution;
+
+    private final String source;
+
+    private final IntUnaryOperator offsets;
+
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+
+    private long weight;
+
+    TreeCopier() {
+        this(null);
+    }
+
+    /**
+     * @param substitution returns the object to put in place of a parsed object instead of its
+     *        copy or <code>null</code> to copy it, may be <code>null</code>
+     */
+    TreeCopier(UnaryOperator<Object> substitution) {
+        this(substitution, null, null);
+    }
+
+    /**
+     * @param substitution returns the object to put in place of a parsed object instead of its
+     *        copy or <code>null</code> to copy it, may be <code>null</code>
+     * @param source the source text the spans of the copies refer to, <code>null</code> to keep the
+     *        spans of the originals
+     * @param offsets maps an offset in the source text of the originals to one in the new source text
+     */
+    TreeCopier(UnaryOperator<Object> substitution, String source, IntUnaryOperator offsets) {
+        this.substitution = substitution;
+        this.source = source;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Thrown, when a tree holds an object, which can't be copied.
+     */
+    static final class UncopyableException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        UncopyableException(String message) {
+            super(message);
+        }
+
+        UncopyableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * @param <T> the type of the root
+     * @param root the root of the tree
+     * @return the copy of the tree
+     * @throws UncopyableException when the tree holds an object, which can't be copied
+     */
+    @SuppressWarnings("unchecked")
+    <T> T copy(T root) throws UncopyableException {
+        return (T) copyValue(root);
+    }
+
+    /**
+     * @return the estimated size in bytes of the objects copied so far, including the shared
+     *         strings
+     */
+    long getWeight() {
+        return weight;
+    }
+
+    private Object copyValue(Object value) throws UncopyableException {
+        if (value == null) {
+            return null;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            weight += HEADER_SIZE + 2L * ((String) value).length();
+            return value;
+        }
+        if (isImmutable(type)) {
+            return value;
+        }
+        Object copy = copies.get(value);
+        if (copy != null) {
+            return copy;
+        }
+        if (type.isArray()) {
+            return copyArray(value, type);
+        }
+        if (isJdkClass(type)) {
+            return copyJdkCollection(value);
+        }
+        if (!isOwnClass(type)) {
+            throw new UncopyableException("An instance of " + type.getName() + " can't be copied.");
+        }
+        if (substitution != null) {
+            Object substitute = substitution.apply(value);
+            if (substitute != null) {
+                copies.put(value, substitute);
+                return substitute;
+            }
+        }
+        return copyObject(value, plan(type));
+    }
+
+    private Object copyArray(Object array, Class<?> type) throws UncopyableException {
+        int length = Array.getLength(array);
+        weight += HEADER_SIZE + (long) REFERENCE_SIZE * length;
+        if (type.getComponentType().isPrimitive()) {
+            Object copy = copyPrimitiveArray(array, type, length);
+            copies.put(array, copy);
+            return copy;
+        }
+        Object[] elements = (Object[]) array;
+        Object[] copy = (Object[]) Array.newInstance(type.getComponentType(), length);
+        copies.put(array, copy);
+        for (int i = 0; i < length; i++) {
+            copy[i] = copyValue(elements[i]);
+        }
+        return copy;
+    }
+
+    private static Object copyPrimitiveArray(Object array, Class<?> type, int length) {
+        Object copy = Array.newInstance(type.getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object copyJdkCollection(Object value) throws UncopyableException {
+        Class<?> type = value.getClass();
+        Object copy;
+        if (EMPTY_COLLECTIONS.contains(type)) {
+            return value;
+        } else if (type == SINGLETON_LIST) {
+            copy = Collections.singletonList(copyValue(((List<?>) value).get(0)));
+        } else if (type == SINGLETON_SET) {
+            copy = Collections.singleton(copyValue(((Set<?>) value).iterator().next()));
+        } else if (type == SINGLETON_MAP) {
+            Map.Entry<?, ?> entry = ((Map<?, ?>) value).entrySet().iterator().next();
+            copy = Collections.singletonMap(copyValue(entry.getKey()), copyValue(entry.getValue()));
+        } else if (type == ARRAYS_LIST) {
+            List<?> list = (List<?>) value;
+            Object[] elements = new Object[list.size()];
+            copy = Arrays.asList(elements);
+            copies.put(value, copy);
+            weight += HEADER_SIZE + (long) REFERENCE_SIZE * elements.length;
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = copyValue(list.get(i));
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            Collection<Object> elements = newCollection(collection);
+            copy = unmodifiableView(type, elements);
+            copies.put(value, copy);
+            weight += HEADER_SIZE + (long) REFERENCE_SIZE * (value instanceof List ? 1 : 4) * collection.size();
+            if (!(value instanceof EnumSet)) {
+                for (Object element : collection) {
+                    elements.add(copyValue(element));
+                }
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            Map<Object, Object> entries = newMap(map);
+            copy = type == UNMODIFIABLE_MAP ? Collections.unmodifiableMap(entries)
+                    : type == UNMODIFIABLE_SORTED_MAP ? Collections.unmodifiableSortedMap((SortedMap<Object, Object>) entries)
+                    : entries;
+            copies.put(value, copy);
+            weight += HEADER_SIZE + 4L * REFERENCE_SIZE * map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                entries.put(copyValue(entry.getKey()), copyValue(entry.getValue()));
+            }
+        } else {
+            throw new UncopyableException("An instance of " + type.getName() + " can't be copied.");
+        }
+        if (copy.getClass() != type) {
+            throw new UncopyableException("An instance of " + type.getName() + " can't be copied into the same type.");
+        }
+        return copy;
+    }
+
+    /**
+     * @return an empty, modifiable collection of the class of the given one or of the collection
+     *         wrapped by it
+     */
+    @SuppressWarnings({"unchecked", "rawtypes", "PMD.CyclomaticComplexity"})
+    private static Collection<Object> newCollection(Collection<?> collection) throws UncopyableException {
+        Class<?> type = collection.getClass();
+        if (type == ArrayList.class || type == UNMODIFIABLE_RANDOM_ACCESS_LIST || type == UNMODIFIABLE_COLLECTION) {
+            return new ArrayList<>(collection.size());
+        } else if (type == LinkedList.class || type == UNMODIFIABLE_LIST) {
+            return new LinkedList<>();
+        } else if (type == HashSet.class) {
+            return new HashSet<>();
+        } else if (type == LinkedHashSet.class || type == UNMODIFIABLE_SET) {
+            return new LinkedHashSet<>();
+        } else if (type == TreeSet.class || type == UNMODIFIABLE_SORTED_SET) {
+            return new TreeSet<>((Comparator<Object>) ((SortedSet<Object>) collection).comparator());
+        } else if (collection instanceof EnumSet) {
+            return (Collection<Object>) ((EnumSet) collection).clone();
+        }
+        throw new UncopyableException("An instance of " + type.getName() + " can't be copied.");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object unmodifiableView(Class<?> type, Collection<Object> elements) {
+        if (type == UNMODIFIABLE_COLLECTION) {
+            return Collections.unmodifiableCollection(elements);
+        } else if (type == UNMODIFIABLE_LIST || type == UNMODIFIABLE_RANDOM_ACCESS_LIST) {
+            return Collections.unmodifiableList((List<Object>) elements);
+        } else if (type == UNMODIFIABLE_SET) {
+            return Collections.unmodifiableSet((Set<Object>) elements);
+        } else if (type == UNMODIFIABLE_SORTED_SET) {
+            return Collections.unmodifiableSortedSet((SortedSet<Object>) elements);
+        }
+        return elements;
+    }
+
+    /**
+     * @return an empty, modifiable map of the class of the given one or of the map wrapped by it
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<Object, Object> newMap(Map<?, ?> map) throws UncopyableException {
+        Class<?> type = map.getClass();
+        if (type == HashMap.class) {
+            return new HashMap<>();
+        } else if (type == LinkedHashMap.class || type == UNMODIFIABLE_MAP) {
+            return new LinkedHashMap<>();
+        } else if (type == TreeMap.class || type == UNMODIFIABLE_SORTED_MAP) {
+            return new TreeMap<>((Comparator<Object>) ((SortedMap<Object, Object>) map).comparator());
+        } else if (type == EnumMap.class) {
+            return new EnumMap((EnumMap) map);
+        }
+        throw new UncopyableException("An instance of " + type.getName() + " can't be copied.");
+    }
+
+    private Object copyObject(Object value, Plan plan) throws UncopyableException {
+        Object copy;
+        try {
+            copy = plan.constructor.newInstance(plan.arguments);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw new UncopyableException("An instance of " + value.getClass().getName() + " can't be created.", ex);
+        }
+        copies.put(value, copy);
+        weight += HEADER_SIZE + (long) REFERENCE_SIZE * plan.fields.length;
+        try {
+            copyFields(value, copy, plan);
+        } catch (IllegalAccessException | IllegalArgumentException ex) {
+            throw new UncopyableException("An instance of " + value.getClass().getName() + " can't be copied.", ex);
+        }
+        if (source != null && value instanceof ASTNodeAccess) {
+            ASTNodeAccess node = (ASTNodeAccess) value;
+            if (node.getSourceBegin() >= 0) {
+                ((ASTNodeAccess) copy).setSourceSpan(source, offsets.applyAsInt(node.getSourceBegin()),
+                        offsets.applyAsInt(node.getSourceEnd()));
+            }
+        }
+        if (plan.collection) {
+            // the constructor might have added elements already
+            ((Collection<?>) copy).clear();
+            copyElements((Collection<?>) value, copy);
+        }
+        return copy;
+    }
+
+    private void copyFields(Object value, Object copy, Plan plan)
+            throws IllegalAccessException, UncopyableException {
+        for (int i = 0; i < plan.fields.length; i++) {
+            Field field = plan.fields[i];
+            if (plan.shared[i]) {
+                Object fieldValue = field.get(value);
+                field.set(copy, fieldValue instanceof Node ? null : fieldValue);
+            } else if (field.getType().isPrimitive()) {
+                copyPrimitive(field, value, copy);
+            } else {
+                field.set(copy, copyValue(field.get(value)));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void copyElements(Collection<?> collection, Object copy) throws UncopyableException {
+        Collection<Object> elements = (Collection<Object>) copy;
+        weight += (long) REFERENCE_SIZE * collection.size();
+        for (Object element : collection) {
+            elements.add(copyValue(element));
+        }
+    }
+
+    @SuppressWarnings("PMD.CyclomaticComplexity")
+    private static void copyPrimitive(Field field, Object value, Object copy) throws IllegalAccessException {
+        Class<?> type = field.getType();
+        if (type == int.class) {
+            field.setInt(copy, field.getInt(value));
+        } else if (type == long.class) {
+            field.setLong(copy, field.getLong(value));
+        } else if (type == boolean.class) {
+            field.setBoolean(copy, field.getBoolean(value));
+        } else if (type == double.class) {
+            field.setDouble(copy, field.getDouble(value));
+        } else if (type == float.class) {
+            field.setFloat(copy, field.getFloat(value));
+        } else if (type == char.class) {
+            field.setChar(copy, field.getChar(value));
+        } else if (type == short.class) {
+            field.setShort(copy, field.getShort(value));
+        } else {
+            field.setByte(copy, field.getByte(value));
+        }
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+        if (type.isEnum() || type.isPrimitive() || type == Boolean.class || type == Character.class
+                || type == Class.class || type == UUID.class || type == Pattern.class || type == Locale.class) {
+            return true;
+        }
+        String name = type.getName();
+        // the boxed numbers, BigInteger and BigDecimal, but not the mutable atomic numbers
+        return Number.class.isAssignableFrom(type) && (name.startsWith("java.lang.") || name.startsWith("java.math."))
+                || name.startsWith("java.time.")
+                || type.getSuperclass() != null && type.getSuperclass().isEnum();
+    }
+
+    private static boolean isJdkClass(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")
+                || name.startsWith("sun.");
+    }
+
+    private static boolean isOwnClass(Class<?> type) {
+        return type.getName().startsWith("net.sf.jsqlparser.");
+    }
+
+    /**
+     * Checks, that the instances of a class can be copied, without copying any.
+     *
+     * @throws UncopyableException when the instances can't be copied
+     */
+    static void checkCopyable(Class<?> type) throws UncopyableException {
+        if (!isOwnClass(type)) {
+            throw new UncopyableException("An instance of " + type.getName() + " can't be copied.");
+        }
+        plan(type);
+    }
+
+    private static Plan plan(Class<?> type) throws UncopyableException {
+        Plan plan = PLANS.get(type);
+        if (plan == null) {
+            plan = new Plan(type);
+            PLANS.put(type, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * How to copy the instances of a class.
+     */
+    private static final class Plan {
+
+        private final Constructor<?> constructor;
+
+        // the default values passed to the constructor
+        private final Object[] arguments;
+
+        private final Field[] fields;
+
+        // TRUE for the transient fields, whose value is shared instead of copied
+        private final boolean[] shared;
+
+        // TRUE, if the class extends a collection of the JDK, whose elements are copied as well
+        private final boolean collection;
+
+        Plan(Class<?> type) throws UncopyableException {
+            this.collection = jdkSuperclass(type) != Object.class;
+            this.fields = instanceFields(type);
+            this.shared = new boolean[fields.length];
+            try {
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i].setAccessible(true);
+                    shared[i] = Modifier.isTransient(fields[i].getModifiers());
+                }
+            } catch (RuntimeException ex) {
+                throw new UncopyableException("An instance of " + type.getName() + " can't be copied.", ex);
+            }
+            this.constructor = constructor(type);
+            this.arguments = defaultArguments(constructor);
+        }
+
+        /**
+         * @return the constructor with the fewest parameters, which creates an instance from default
+         *         values
+         */
+        private static Constructor<?> constructor(Class<?> type) throws UncopyableException {
+            Constructor<?>[] constructors = type.getDeclaredConstructors();
+            Arrays.sort(constructors, Comparator.comparingInt(Constructor::getParameterCount));
+            Exception failure = null;
+            for (Constructor<?> constructor : constructors) {
+                try {
+                    constructor.setAccessible(true);
+                    constructor.newInstance(defaultArguments(constructor));
+                    return constructor;
+                } catch (ReflectiveOperationException | RuntimeException ex) {
+                    // try the next one
+                    failure = ex;
+                }
+            }
+            throw new UncopyableException("An instance of " + type.getName() + " can't be created.", failure);
+        }
+
+        /**
+         * @return the simplest value for every parameter, which is overwritten by the copied fields
+         */
+        private static Object[] defaultArguments(Constructor<?> constructor) {
+            Class<?>[] types = constructor.getParameterTypes();
+            Object[] arguments = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                arguments[i] = defaultValue(types[i]);
+            }
+            return arguments;
+        }
+
+        /**
+         * @return zero, <code>false</code>, an empty string, array, list or map, the first constant of
+         *         an enum, an instance created by the constructor without parameters of a class of
+         *         JSqlParser or <code>null</code>
+         */
+        @SuppressWarnings("PMD.CyclomaticComplexity")
+        private static Object defaultValue(Class<?> type) {
+            if (type.isArray()) {
+                return Array.newInstance(type.getComponentType(), 0);
+            } else if (type == boolean.class) {
+                return false;
+            } else if (type == char.class) {
+                return '\0';
+            } else if (type.isPrimitive()) {
+                return Array.get(Array.newInstance(type, 1), 0);
+            } else if (type == String.class) {
+                return "";
+            } else if (type.isEnum()) {
+                Object[] constants = type.getEnumConstants();
+                return constants.length > 0 ? constants[0] : null;
+            } else if (type != Object.class && type.isAssignableFrom(ArrayList.class)) {
+                return new ArrayList<>();
+            } else if (type != Object.class && type.isAssignableFrom(LinkedHashMap.class)) {
+                return new LinkedHashMap<>();
+            } else if (isOwnClass(type) && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+                try {
+                    return type.getConstructor().newInstance();
+                } catch (ReflectiveOperationException | RuntimeException ex) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the first superclass of the JDK, which is either {@link Object} or a collection
+         */
+        private static Class<?> jdkSuperclass(Class<?> type) throws UncopyableException {
+            Class<?> superclass = type;
+            while (!isJdkClass(superclass)) {
+                superclass = superclass.getSuperclass();
+            }
+            if (type.isAnonymousClass() || type.isSynthetic()
+                    || superclass != Object.class && !Collection.class.isAssignableFrom(superclass)) {
+                throw new UncopyableException("An instance of " + type.getName() + " can't be copied.");
+            }
+            return superclass;
+        }
+
+        /**
+         * @return the instance fields declared by the class and its superclasses outside of the JDK
+         */
+        private static Field[] instanceFields(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; !isJdkClass(c); c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    }
+}
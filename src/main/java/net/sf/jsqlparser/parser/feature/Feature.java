@@ -724,6 +724,26 @@ public enum Feature {
      */
     allowUnsupportedStatements(false),
     timeOut(8000),
+    /**
+     * skips the bodies of parenthesed sub-selects and WITH items while parsing and parses them on
+     * first access only, disabled by default. A skipped body is checked only as far as the
+     * lookaheads of the parser scan it, so a syntax error inside it may not be reported by the
+     * parser, but thrown as {@link net.sf.jsqlparser.UncheckedJSQLParserException} by the first
+     * access, e.g. by
+     * {@link net.sf.jsqlparser.statement.select.ParenthesedSelect#getSelect()} or by
+     * {@code toString()}.
+     */
+    lazySubqueries(false),
+    /**
+     * links the jjtree nodes, and through them the tokens of the whole text, into the parsed
+     * objects for {@link net.sf.jsqlparser.parser.ASTNodeAccess#getASTNode()}, enabled by default.
+     * When switched off, parsed statements don't keep the nodes and the tokens alive, but still
+     * their {@link net.sf.jsqlparser.parser.ASTNodeAccess#getSourceText()}. The nodes and tokens are
+     * still created and held while parsing, since the grammar builds them unconditionally: the
+     * option reduces the heap retained by kept statements, not the allocation or the time of a
+     * parse.
+     */
+    linkASTNodes(true),
     /**
      * allows Backslash '\' as Escape Character
      */
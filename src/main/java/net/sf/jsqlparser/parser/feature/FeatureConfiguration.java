@@ -9,31 +9,147 @@
  */
 package net.sf.jsqlparser.parser.feature;
 
-import java.util.EnumMap;
-import java.util.EnumSet;
-import java.util.Map;
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-public class FeatureConfiguration {
+/**
+ * The values of the configurable {@link Feature}s of a parser.
+ * <p>
+ * The values are held in an array indexed by {@link Feature#ordinal()} and shared copy-on-write: a
+ * new configuration or a copy of an immutable configuration references the values of the original
+ * and copies them only when a value is changed. Immutable configurations, like the presets
+ * {@link #DEFAULT}, {@link #SQLSERVER}, {@link #MYSQL} and {@link #POSTGRESQL}, can be shared by
+ * any number of parsers and Threads, while a parser copies them as soon as a feature is changed on
+ * it.
+ */
+public class FeatureConfiguration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final Logger LOG = Logger.getLogger(FeatureConfiguration.class.getName());
 
-    private Map<Feature, Object> featureEnabled = new EnumMap<>(Feature.class);
+    private static final Object[] DEFAULT_VALUES = defaultValues();
+
+    /**
+     * the default configuration
+     */
+    public static final FeatureConfiguration DEFAULT = new FeatureConfiguration(DEFAULT_VALUES, true);
+
+    /**
+     * the default configuration allowing square brackets for names
+     */
+    public static final FeatureConfiguration SQLSERVER = DEFAULT.with(Feature.allowSquareBracketQuotation, true);
+
+    /**
+     * the default configuration allowing backslash as escape character
+     */
+    public static final FeatureConfiguration MYSQL = DEFAULT.with(Feature.allowBackslashEscapeCharacter, true);
+
+    /**
+     * the default configuration allowing PostgreSQL specific syntax
+     */
+    public static final FeatureConfiguration POSTGRESQL = DEFAULT.with(Feature.allowPostgresSpecificSyntax, true);
+
+    private Object[] values;
+
+    // FALSE, if the values may be shared with another configuration and must be copied before a change
+    private boolean owned;
+
+    private final boolean immutable;
 
     public FeatureConfiguration() {
-        // set default-value for all switchable features
-        EnumSet.allOf(Feature.class).stream().filter(Feature::isConfigurable).forEach(f -> setValue(f, f.getDefaultValue()));
+        // start with the default-value for all switchable features
+        this(DEFAULT_VALUES, false);
+    }
+
+    /**
+     * Creates an independent copy of the given configuration, which is mutable.
+     *
+     * @param configuration the configuration to copy
+     */
+    public FeatureConfiguration(FeatureConfiguration configuration) {
+        this(configuration.immutable ? configuration.values : configuration.values.clone(), false);
+        owned = !configuration.immutable;
+    }
+
+    private FeatureConfiguration(Object[] values, boolean immutable) {
+        this.values = values;
+        this.immutable = immutable;
+    }
+
+    private static Object[] defaultValues() {
+        Feature[] features = Feature.values();
+        Object[] values = new Object[features.length];
+        for (Feature feature : features) {
+            if (feature.isConfigurable()) {
+                values[feature.ordinal()] = normalize(feature.getDefaultValue());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return TRUE, if the values can't be changed
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
+    /**
+     * @return an immutable snapshot of this configuration, which can be shared
+     */
+    public FeatureConfiguration toImmutable() {
+        if (immutable) {
+            return this;
+        }
+        // from now on, this configuration shares its values with the snapshot
+        owned = false;
+        return new FeatureConfiguration(values, true);
     }
 
     /**
      * @param feature
      * @param value
+     * @return an immutable configuration like this one, but with the given value
+     */
+    public FeatureConfiguration with(Feature feature, Object value) {
+        return new FeatureConfiguration(this).setValue(feature, value).toImmutable();
+    }
+
+    /**
+     * Replaces all values by those of the given configuration, reusing this instance.
+     *
+     * @param configuration the configuration to copy
      * @return <code>this</code>
      */
+    public FeatureConfiguration setValues(FeatureConfiguration configuration) {
+        checkMutable();
+        if (configuration.immutable) {
+            values = configuration.values;
+            owned = false;
+        } else {
+            values = configuration.values.clone();
+            owned = true;
+        }
+        return this;
+    }
+
+    /**
+     * @param feature
+     * @param value
+     * @return <code>this</code>
+     * @throws UnsupportedOperationException - if this configuration is immutable
+     */
     public FeatureConfiguration setValue(Feature feature, Object value) {
+        checkMutable();
         if (feature.isConfigurable()) {
-            featureEnabled.put(feature, value);
+            if (!owned) {
+                values = values.clone();
+                owned = true;
+            }
+            values[feature.ordinal()] = normalize(value);
         } else {
             if (LOG.isLoggable(Level.WARNING)) {
                 LOG.warning(feature.name() + " is not switchable - cannot set enabled = " + value);
@@ -42,6 +158,23 @@ public class FeatureConfiguration {
         return this;
     }
 
+    /**
+     * @return the value, with integral numbers as {@link Long}, so that equal values compare equal
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        return value;
+    }
+
+    private void checkMutable() {
+        if (immutable) {
+            throw new UnsupportedOperationException(
+                    "The configuration is immutable, change a copy of it instead");
+        }
+    }
+
     /**
      * @param feature
      * @return the configured feature value - can be <code>null</code>
@@ -50,22 +183,43 @@ public class FeatureConfiguration {
      */
     public Object getValue(Feature feature) {
         if (feature.isConfigurable()) {
-            return featureEnabled.get(feature);
+            return values[feature.ordinal()];
         } else {
             throw new IllegalStateException("The feature " + feature + " is not configurable!");
         }
     }
 
     public boolean getAsBoolean(Feature f) {
-        return Boolean.parseBoolean(String.valueOf(getValue(f)));
+        Object value = getValue(f);
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(String.valueOf(value));
     }
 
     public Long getAsLong(Feature f) {
-        return Long.valueOf(String.valueOf(getValue(f)));
+        Object value = getValue(f);
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(String.valueOf(value));
     }
 
     public String getAsString(Feature f) {
         Object value = getValue(f);
         return value == null ? null : String.valueOf(value);
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FeatureConfiguration)) {
+            return false;
+        }
+        return Arrays.equals(values, ((FeatureConfiguration) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
 }
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.flow;
+
+/**
+ * The Reactive Streams interfaces, declared exactly like {@code java.util.concurrent.Flow} of Java
+ * 9, which is not available on Java 8. An implementation can be adapted to
+ * {@code java.util.concurrent.Flow} or {@code org.reactivestreams} by simple delegation.
+ */
+public final class Flow {
+
+    private Flow() {
+    }
+
+    /**
+     * A producer of items, which are received by Subscribers on their demand.
+     *
+     * @param <T> the type of the items
+     */
+    @FunctionalInterface
+    public interface Publisher<T> {
+
+        /**
+         * Adds a Subscriber, which receives {@link Subscriber#onSubscribe(Subscription)} first.
+         *
+         * @param subscriber the subscriber
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * A receiver of items. The methods are invoked in sequence, never concurrently.
+     *
+     * @param <T> the type of the items
+     */
+    public interface Subscriber<T> {
+
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    /**
+     * The link between a Publisher and a Subscriber, which tells the demand of the Subscriber.
+     */
+    public interface Subscription {
+
+        /**
+         * Adds to the number of items the Subscriber is ready to receive.
+         *
+         * @param n the number of additional items, must be positive
+         */
+        void request(long n);
+
+        /**
+         * Stops sending items, eventually.
+         */
+        void cancel();
+    }
+
+    /**
+     * A component acting as both Subscriber and Publisher.
+     *
+     * @param <T> the type of the items received
+     * @param <R> the type of the items published
+     */
+    public interface Processor<T, R> extends Subscriber<T>, Publisher<R> {
+    }
+}
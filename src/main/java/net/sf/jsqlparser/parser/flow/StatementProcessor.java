@@ -0,0 +1,167 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.flow;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import net.sf.jsqlparser.parser.CCJSqlParser;
+import net.sf.jsqlparser.parser.ParsedStatement;
+import net.sf.jsqlparser.parser.StatementSpliterator;
+
+/**
+ * Parses the SQL texts received from a Publisher, e.g. the lines of a query log, and publishes
+ * their statements to a single Subscriber. A text may hold several statements. A statement which
+ * can't be parsed is published with its error and does not end the stream, its offsets refer to the
+ * text it was received with.
+ * <p>
+ * A single text is requested from the upstream Publisher at a time and only when the Subscriber
+ * has requested statements, so neither texts nor statements are buffered without bounds.
+ */
+public class StatementProcessor implements Flow.Processor<String, ParsedStatement> {
+
+    private final Executor executor;
+
+    private final Consumer<CCJSqlParser> consumer;
+
+    private final Queue<String> texts = new ConcurrentLinkedQueue<>();
+
+    private volatile Flow.Subscription upstream;
+
+    private volatile Emitter emitter;
+
+    private volatile boolean completed;
+
+    private volatile Throwable upstreamError;
+
+    /**
+     * @param consumer configures the parser of each statement, may be {@code null}
+     */
+    public StatementProcessor(Consumer<CCJSqlParser> consumer) {
+        this(ForkJoinPool.commonPool(), consumer);
+    }
+
+    /**
+     * @param executor the Executor to parse on
+     * @param consumer configures the parser of each statement, may be {@code null}
+     */
+    public StatementProcessor(Executor executor, Consumer<CCJSqlParser> consumer) {
+        this.executor = executor;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ParsedStatement> subscriber) {
+        Emitter e;
+        synchronized (this) {
+            if (emitter != null) {
+                e = null;
+            } else {
+                e = new Emitter(subscriber);
+                emitter = e;
+            }
+        }
+        if (e == null) {
+            StatementSubscription.reject(subscriber);
+            return;
+        }
+        subscriber.onSubscribe(e);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        signal();
+    }
+
+    @Override
+    public void onNext(String item) {
+        texts.offer(item);
+        signal();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = throwable;
+        completed = true;
+        signal();
+    }
+
+    @Override
+    public void onComplete() {
+        completed = true;
+        signal();
+    }
+
+    private void signal() {
+        Emitter e = emitter;
+        if (e != null) {
+            e.schedule();
+        }
+    }
+
+    private final class Emitter extends StatementSubscription {
+
+        // only accessed by the drain task
+        private final Deque<ParsedStatement> statements = new ArrayDeque<>();
+
+        private boolean outstanding;
+
+        Emitter(Flow.Subscriber<? super ParsedStatement> subscriber) {
+            super(subscriber, executor);
+        }
+
+        @Override
+        ParsedStatement next() {
+            String text;
+            while (statements.isEmpty() && (text = texts.poll()) != null) {
+                outstanding = false;
+                new StatementSpliterator(new StringReader(text), consumer).forEachRemaining(statements::add);
+            }
+            return statements.poll();
+        }
+
+        @Override
+        boolean isExhausted() {
+            return completed && texts.isEmpty() && statements.isEmpty();
+        }
+
+        @Override
+        Throwable getSourceError() {
+            return upstreamError;
+        }
+
+        @Override
+        void onDemand() {
+            Flow.Subscription subscription = upstream;
+            if (!outstanding && subscription != null) {
+                outstanding = true;
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        void release() {
+            Flow.Subscription subscription = upstream;
+            if (!completed && subscription != null) {
+                subscription.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.flow;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import net.sf.jsqlparser.parser.CCJSqlParser;
+import net.sf.jsqlparser.parser.ParsedStatement;
+import net.sf.jsqlparser.parser.StatementSpliterator;
+
+/**
+ * Publishes the statements of a script to a single Subscriber, parsing one statement at a time on
+ * its demand. A statement which can't be parsed is published with its error and does not end the
+ * stream, while an I/O error of the script does.
+ * <p>
+ * Only the requested statements are parsed, so a slow Subscriber holds back the reading of the
+ * script instead of buffering its statements.
+ */
+public class StatementPublisher implements Flow.Publisher<ParsedStatement> {
+
+    private final StatementSpliterator spliterator;
+
+    private final Executor executor;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * @param reader the script
+     * @param consumer configures the parser of each statement, may be {@code null}
+     */
+    public StatementPublisher(Reader reader, Consumer<CCJSqlParser> consumer) {
+        this(new StatementSpliterator(reader, consumer), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param spliterator the statements of the script
+     * @param executor the Executor to parse on
+     */
+    public StatementPublisher(StatementSpliterator spliterator, Executor executor) {
+        this.spliterator = spliterator;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ParsedStatement> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            StatementSubscription.reject(subscriber);
+            return;
+        }
+        subscriber.onSubscribe(new StatementSubscription(subscriber, executor) {
+            private ParsedStatement current;
+
+            @Override
+            ParsedStatement next() {
+                current = null;
+                spliterator.tryAdvance(statement -> current = statement);
+                return current;
+            }
+
+            @Override
+            boolean isExhausted() {
+                return spliterator.estimateSize() == 0;
+            }
+
+            @Override
+            @SuppressWarnings("PMD.EmptyCatchBlock")
+            void release() {
+                try {
+                    spliterator.close();
+                } catch (IOException ex) {
+                    // the script has been read completely or is not needed anymore
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,177 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.flow;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import net.sf.jsqlparser.parser.ParsedStatement;
+
+/**
+ * Emits parsed statements to a single Subscriber according to its demand. All signals are sent
+ * from a drain task on the Executor, which never runs concurrently with itself, so the statements
+ * are parsed only when they have been requested.
+ */
+abstract class StatementSubscription implements Flow.Subscription, Runnable {
+
+    private final Flow.Subscriber<? super ParsedStatement> subscriber;
+
+    private final Executor executor;
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+
+    private volatile boolean cancelled;
+
+    private volatile Throwable failure;
+
+    // only accessed by the drain task
+    private boolean terminated;
+
+    StatementSubscription(Flow.Subscriber<? super ParsedStatement> subscriber, Executor executor) {
+        this.subscriber = subscriber;
+        this.executor = executor;
+    }
+
+    /**
+     * Rejects a Subscriber, since the statements can be published only once.
+     *
+     * @param subscriber the Subscriber
+     */
+    static void reject(Flow.Subscriber<?> subscriber) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                // nothing to publish
+            }
+
+            @Override
+            public void cancel() {
+                // nothing to publish
+            }
+        });
+        subscriber.onError(new IllegalStateException("The statements have been subscribed already"));
+    }
+
+    /**
+     * @return the next statement, or {@code null} if none is available right now
+     */
+    abstract ParsedStatement next();
+
+    /**
+     * @return TRUE, if no more statements will become available
+     */
+    abstract boolean isExhausted();
+
+    /**
+     * @return the error, which ended the source, or {@code null} if it completed normally
+     */
+    Throwable getSourceError() {
+        return null;
+    }
+
+    /**
+     * Called when statements are requested, but none is available right now.
+     */
+    void onDemand() {
+    }
+
+    /**
+     * Releases the source, after the last signal has been sent or the subscription has been
+     * cancelled.
+     */
+    abstract void release();
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            failure = new IllegalArgumentException("Non-positive request: " + n);
+        } else {
+            requested.accumulateAndGet(n, (r, m) -> r + m < 0 ? Long.MAX_VALUE : r + m);
+        }
+        schedule();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        schedule();
+    }
+
+    /**
+     * Makes the drain task run, unless it is running already.
+     */
+    void schedule() {
+        if (pendingDrains.getAndIncrement() == 0) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException ex) {
+                // the drain task never runs again, since the counter stays positive
+                terminated = true;
+                release();
+                subscriber.onError(ex);
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        int missed = 1;
+        do {
+            drain();
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    @SuppressWarnings({"PMD.CyclomaticComplexity", "PMD.AvoidCatchingGenericException"})
+    private void drain() {
+        if (terminated) {
+            return;
+        }
+        try {
+            while (!cancelled && failure == null && requested.get() > 0) {
+                ParsedStatement statement = next();
+                if (statement == null) {
+                    break;
+                }
+                if (requested.get() != Long.MAX_VALUE) {
+                    requested.decrementAndGet();
+                }
+                subscriber.onNext(statement);
+            }
+            if (cancelled) {
+                terminate();
+            } else if (failure != null) {
+                terminate();
+                subscriber.onError(failure);
+            } else if (isExhausted()) {
+                terminate();
+                Throwable sourceError = getSourceError();
+                if (sourceError != null) {
+                    subscriber.onError(sourceError);
+                } else {
+                    subscriber.onComplete();
+                }
+            } else if (requested.get() > 0) {
+                onDemand();
+            }
+        } catch (RuntimeException ex) {
+            terminate();
+            subscriber.onError(ex);
+        }
+    }
+
+    private void terminate() {
+        terminated = true;
+        release();
+    }
+}
@@ -120,7 +120,7 @@ public class ReferentialAction implements Serializable {
         }
 
         public String getAction() {
-            return getResponse();
+            return action;
         }
     }
 
@@ -9,6 +9,7 @@
  */
 package net.sf.jsqlparser.statement.select;
 
+import java.util.function.Supplier;
 import net.sf.jsqlparser.expression.Alias;
 
 public class ParenthesedSelect extends Select implements FromItem {
@@ -21,6 +22,9 @@ public class ParenthesedSelect extends Select implements FromItem {
 
     Select select;
 
+    // builds the select on first access, e.g. when its body has been skipped by the parser
+    private Supplier<Select> lazySelect;
+
     @Override
     public Alias getAlias() {
         return alias;
@@ -55,23 +59,51 @@ public class ParenthesedSelect extends Select implements FromItem {
     }
 
     public Select getSelect() {
+        if (lazySelect != null) {
+            select = lazySelect.get();
+            lazySelect = null;
+        }
         return select;
     }
 
     public Values getValues() {
-        return (Values) select;
+        return (Values) getSelect();
     }
 
     public PlainSelect getPlainSelect() {
-        return (PlainSelect) select;
+        return (PlainSelect) getSelect();
     }
 
     public SetOperationList getSetOperationList() {
-        return (SetOperationList) select;
+        return (SetOperationList) getSelect();
     }
 
     public void setSelect(Select select) {
         this.select = select;
+        this.lazySelect = null;
+    }
+
+    /**
+     * Sets the select to be built on first access of {@link #getSelect()}, by the parser with
+     * {@link net.sf.jsqlparser.parser.feature.Feature#lazySubqueries}. Building it is not
+     * thread-safe and may fail with an unchecked exception, e.g. an
+     * {@link net.sf.jsqlparser.UncheckedJSQLParserException}. The supplier must be serializable for
+     * serializing this select before the first access.
+     *
+     * @param lazySelect builds the select
+     * @return this
+     */
+    public ParenthesedSelect withLazySelect(Supplier<Select> lazySelect) {
+        this.select = null;
+        this.lazySelect = lazySelect;
+        return this;
+    }
+
+    /**
+     * @return FALSE, if the select is still to be built on first access
+     */
+    public boolean isMaterialized() {
+        return lazySelect == null;
     }
 
     public ParenthesedSelect withSelect(Select selectBody) {
@@ -90,7 +122,7 @@ public class ParenthesedSelect extends Select implements FromItem {
     }
 
     public StringBuilder appendSelectBodyTo(StringBuilder builder) {
-        builder.append("(").append(select).append(")");
+        builder.append("(").append(getSelect()).append(")");
         if (alias != null) {
             builder.append(alias);
         }
@@ -31,7 +31,7 @@ public class TableFunction extends SelectItem<Function> implements FromItem {
 
     @Override
     public UnPivot getUnPivot() {
-        return emptyMethod();
+        return null;
     }
 
     @Override
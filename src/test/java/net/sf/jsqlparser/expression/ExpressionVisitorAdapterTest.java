@@ -40,7 +40,9 @@ public class ExpressionVisitorAdapterTest {
 
             @Override
             public void visit(InExpression expr) {
-                visitAndAddExprList(expr);
+                super.visit(expr);
+                exprList.add(expr.getLeftExpression());
+                exprList.add(expr.getRightExpression());
             }
         });
         assertTrue(exprList.get(0) instanceof Column);
@@ -56,7 +58,9 @@ public class ExpressionVisitorAdapterTest {
 
             @Override
             public void visit(InExpression expr) {
-                visitAndAddExprList(expr);
+                super.visit(expr);
+                exprList.add(expr.getLeftExpression());
+                exprList.add(expr.getRightExpression());
             }
         });
         assertTrue(exprList.get(0) instanceof ExpressionList<?>);
@@ -116,7 +120,8 @@ public class ExpressionVisitorAdapterTest {
 
             @Override
             public void visit(Column column) {
-                visitAndAddColumnToList(column);
+                super.visit(column);
+                columnList.add(column.getColumnName());
             }
         });
         assertEquals(1, columnList.size());
@@ -132,7 +137,8 @@ public class ExpressionVisitorAdapterTest {
 
             @Override
             public void visit(Column column) {
-                visitAndAddColumnToList(column);
+                super.visit(column);
+                columnList.add(column.getColumnName());
             }
         });
         assertEquals(1, columnList.size());
@@ -213,14 +219,5 @@ public class ExpressionVisitorAdapterTest {
         CCJSqlParserUtil.parseExpression("CAST(ROW(dataid, value, calcMark) AS ROW(datapointid CHAR, value CHAR, calcMark CHAR))").accept(adapter);
     }
 
-    private void visitAndAddExprList(InExpression expr) {
-        super.visit(expr);
-        exprList.add(expr.getLeftExpression());
-        exprList.add(expr.getRightExpression());
-    }
 
-    private void visitAndAddColumnToList(Column column) {
-        super.visit(column);
-        columnList.add(column.getColumnName());
-    }
 }
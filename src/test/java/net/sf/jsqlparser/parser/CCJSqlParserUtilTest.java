@@ -80,6 +80,21 @@ public class CCJSqlParserUtilTest {
         assertThrows(JSQLParserException.class, () -> CCJSqlParserUtil.parse(new StringReader("whatever$")));
     }
 
+    /**
+     * A long Token read from a Reader expands the buffers of 4096 characters several times, the
+     * scaling with the length is covered by the LargeStatementBenchmark.
+     */
+    @Test
+    public void testParseLongTokenFromReader() throws Exception {
+        StringBuilder builder = new StringBuilder("INSERT INTO t (a) VALUES ('");
+        while (builder.length() < 64 << 10) {
+            builder.append("abcdefghijklmnopqrstuvwxyz\n");
+        }
+        String sql = builder.append("', 'b')").toString();
+        Statement statement = CCJSqlParserUtil.parse(new StringReader(sql));
+        assertEquals(sql, statement.toString());
+    }
+
     @Test
     public void testParseExpressionNonPartial2() throws Exception {
         Expression result = CCJSqlParserUtil.parseExpression("a+", true);
@@ -227,8 +242,8 @@ public class CCJSqlParserUtilTest {
 
     /**
      * The purpose of the test is to run into a timeout and to stop the parser when this happens. We
-     * provide an INVALID statement for this purpose, which will fail the SIMPLE parse and then hang
-     * with COMPLEX parsing until the timeout occurs.
+     * provide an INVALID statement for this purpose, which will fail the SIMPLE parse and then fail
+     * with COMPLEX parsing, unless the timeout occurs before.
      * <p>
      * We repeat that test multiple times and want to see no stale references to the Parser after
      * timeout.
@@ -272,17 +287,31 @@ public class CCJSqlParserUtilTest {
     @Test
     public void testTimeOutIssue1582() {
         // This statement is INVALID on purpose
-        // There are crafted INTO keywords in order to make it fail but only after a long time (40
-        // seconds plus)
+        // There are crafted INTO keywords in order to make it fail, which took a long time (40
+        // seconds plus) before the failed lookaheads were memoized
         String sqlStr = "" + "select\n" + "  t0.operatienr\n" + "  , case\n" + "        when\n" + "            case when (t0.vc_begintijd_operatie is null or lpad((extract('hours' into t0.vc_begintijd_operatie::timestamp))::text,2,'0') ||':'|| lpad(extract('minutes' from t0.vc_begintijd_operatie::timestamp)::text,2,'0') = '00:00') then null\n" + "                 else (greatest(((extract('hours' into (t0.vc_eindtijd_operatie::timestamp-t0.vc_begintijd_operatie::timestamp))*60 + extract('minutes' from (t0.vc_eindtijd_operatie::timestamp-t0.vc_begintijd_operatie::timestamp)))/60)::numeric(12,2),0))*60\n" + "        end = 0 then null\n" + "            else '25. Meer dan 4 uur'\n" + "        end\n" + "      as snijtijd_interval";
-        // With DEFAULT TIMEOUT 6 Seconds, we expect the statement to timeout normally
-        // A TimeoutException wrapped into a Parser Exception should be thrown
+        // With DEFAULT TIMEOUT 6 Seconds, we expect the statement to fail well before the timeout
+        // No TimeoutException wrapped into a Parser Exception must be thrown
         assertThrows(JSQLParserException.class, new Executable() {
 
             @Override
             public void execute() throws Throwable {
                 try {
                     CCJSqlParserUtil.parse(sqlStr);
+                } catch (JSQLParserException ex) {
+                    assertFalse(ex.getCause() instanceof TimeoutException);
+                    throw ex;
+                }
+            }
+        });
+        // With a TIMEOUT of 1 Millisecond, we expect the statement to timeout
+        // A TimeoutException wrapped into a Parser Exception should be thrown
+        assertThrows(JSQLParserException.class, new Executable() {
+
+            @Override
+            public void execute() throws Throwable {
+                try {
+                    CCJSqlParserUtil.parse(sqlStr, parser -> parser.withTimeOut(1));
                 } catch (JSQLParserException ex) {
                     assertTrue(ex.getCause() instanceof TimeoutException);
                     throw ex;
@@ -335,7 +364,7 @@ public class CCJSqlParserUtilTest {
                 }
             }
         });
-        // Expect to time-out with COMPLEX Parsing allowed
+        // Expect to time-out with COMPLEX Parsing allowed and a TIMEOUT shorter than the parsing time
         // CCJSqlParserUtil.LOGGER will report:
         // 1) Allowed Complex Parsing: true
         // 2) Trying SIMPLE parsing first
@@ -346,7 +375,7 @@ public class CCJSqlParserUtilTest {
             public void execute() throws Throwable {
                 try {
                     CCJSqlParserUtil.parse(INVALID_SQL, executorService, parser -> {
-                        parser.withTimeOut(1000);
+                        parser.withTimeOut(1);
                         parser.withAllowComplexParsing(true);
                     });
                 } catch (JSQLParserException ex) {
@@ -358,4 +387,30 @@ public class CCJSqlParserUtilTest {
         executorService.shutdownNow();
         CCJSqlParserUtil.LOGGER.setLevel(Level.OFF);
     }
+
+    @Test
+    void testCooperativeTimeOutOnCallingThread() throws JSQLParserException {
+        Statement statement = CCJSqlParserUtil.parseStatement(CCJSqlParserUtil.newParser("SELECT * FROM mytable"));
+        assertEquals("SELECT * FROM mytable", statement.toString());
+        assertEquals(2, CCJSqlParserUtil.parseStatements(CCJSqlParserUtil.newParser("SELECT 1; SELECT 2")).size());
+
+        // without an Executor Service, COMPLEX parsing runs on the calling thread and stops by
+        // itself when the deadline has passed
+        long start = System.currentTimeMillis();
+        JSQLParserException exception = assertThrows(JSQLParserException.class,
+                () -> CCJSqlParserUtil.parse(INVALID_SQL, null, parser -> {
+                    parser.withTimeOut(1);
+                    parser.withAllowComplexParsing(true);
+                }));
+        assertTrue(exception.getCause() instanceof TimeoutException);
+        assertTrue(System.currentTimeMillis() - start < 6000);
+
+        // a failure before the deadline is reported as a plain Parser Exception
+        exception = assertThrows(JSQLParserException.class,
+                () -> CCJSqlParserUtil.parse(INVALID_SQL, null, parser -> {
+                    parser.withTimeOut(10000);
+                    parser.withAllowComplexParsing(false);
+                }));
+        assertFalse(exception.getCause() instanceof TimeoutException);
+    }
 }
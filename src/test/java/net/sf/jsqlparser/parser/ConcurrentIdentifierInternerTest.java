@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Function;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConcurrentIdentifierInternerTest {
+
+    private static PlainSelect parse(String sql, IdentifierInterner interner) throws JSQLParserException {
+        return (PlainSelect) CCJSqlParserUtil.parse(sql, parser -> parser.withIdentifierInterner(interner));
+    }
+
+    @Test
+    public void testParsedNamesAreShared() throws JSQLParserException {
+        IdentifierInterner interner = new ConcurrentIdentifierInterner();
+        String sql = "SELECT t.a AS x, max(b) FROM s.t1 t";
+        PlainSelect first = parse(sql, interner);
+        PlainSelect second = parse(new String(sql.toCharArray()), interner);
+
+        Column firstColumn = first.getSelectItem(0).getExpression(Column.class);
+        Column secondColumn = second.getSelectItem(0).getExpression(Column.class);
+        assertSame(firstColumn.getColumnName(), secondColumn.getColumnName());
+        assertSame(firstColumn.getTable().getName(), secondColumn.getTable().getName());
+        assertSame(first.getSelectItem(0).getAlias().getName(), second.getSelectItem(0).getAlias().getName());
+        assertSame(first.getSelectItem(1).getExpression(Function.class).getMultipartName().get(0),
+                second.getSelectItem(1).getExpression(Function.class).getMultipartName().get(0));
+        assertSame(first.getFromItem(Table.class).getSchemaName(), second.getFromItem(Table.class).getSchemaName());
+        assertSame(first.getFromItem(Table.class).getName(), second.getFromItem(Table.class).getName());
+        assertEquals(sql, second.toString());
+    }
+
+    @Test
+    public void testNamesAreNotSharedByDefault() throws JSQLParserException {
+        String sql = "SELECT a FROM t1";
+        PlainSelect first = (PlainSelect) CCJSqlParserUtil.parse(sql);
+        PlainSelect second = (PlainSelect) CCJSqlParserUtil.parse(sql);
+        assertNotSame(first.getFromItem(Table.class).getName(), second.getFromItem(Table.class).getName());
+    }
+
+    @Test
+    public void testBounds() {
+        ConcurrentIdentifierInterner interner = new ConcurrentIdentifierInterner(2, 3);
+        assertNull(interner.intern(null));
+        String abc = interner.intern("abc");
+        assertSame(abc, interner.intern(new String("abc")));
+        assertNotSame(interner.intern("abcd"), interner.intern(new String("abcd")));
+        assertEquals(1, interner.size());
+
+        interner.intern("b");
+        assertEquals(2, interner.size());
+        interner.intern("c");
+        assertEquals(1, interner.size());
+        assertNotSame(abc, interner.intern(new String("abc")));
+
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentIdentifierInterner(0, 1));
+    }
+}
@@ -0,0 +1,108 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IncrementalStatementParserTest {
+
+    private static final String SCRIPT = "SELECT 'Grüße 😀;' FROM t1;\n"
+            + "CREATE FUNCTION f() RETURNS int AS $$ BEGIN RETURN 1; END $$ LANGUAGE plpgsql;\n"
+            + "SELECT FROM WHERE;\n"
+            + "BEGIN\n  UPDATE t2 SET a = 1;\nEND;\n/\n"
+            + "SELECT /* ; */ b FROM t3 -- ;\n";
+
+    private static List<String> expected() {
+        try (Stream<ParsedStatement> stream = CCJSqlParserUtil.streamStatements(new StringReader(SCRIPT), null)) {
+            return stream.map(ParsedStatement::toString).collect(Collectors.toList());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 7, 1000})
+    public void testByteChunks(int chunkSize) {
+        List<String> statements = new ArrayList<>();
+        IncrementalStatementParser parser =
+                new IncrementalStatementParser(null, parsed -> statements.add(parsed.toString()));
+        byte[] bytes = SCRIPT.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i += chunkSize) {
+            parser.feed(ByteBuffer.wrap(bytes, i, Math.min(chunkSize, bytes.length - i)));
+        }
+        parser.finish();
+        assertEquals(expected(), statements);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 1000})
+    public void testCharChunks(int chunkSize) {
+        List<String> statements = new ArrayList<>();
+        IncrementalStatementParser parser =
+                new IncrementalStatementParser(null, parsed -> statements.add(parsed.toString()));
+        for (int i = 0; i < SCRIPT.length(); i += chunkSize) {
+            CharBuffer chunk = CharBuffer.wrap(SCRIPT, i, Math.min(i + chunkSize, SCRIPT.length()));
+            parser.feed(chunk);
+            assertFalse(chunk.hasRemaining());
+        }
+        parser.finish();
+        assertEquals(expected(), statements);
+    }
+
+    @Test
+    public void testSplitsInTheDialectOfTheParser() {
+        List<ParsedStatement> statements = new ArrayList<>();
+        IncrementalStatementParser parser = new IncrementalStatementParser(
+                configured -> configured.withBackslashEscapeCharacter(true), statements::add);
+        for (int round = 0; round < 2; round++) {
+            statements.clear();
+            parser.feed("INSERT INTO t VALUES ('a\\';b'); SELECT 1");
+            parser.finish();
+            assertEquals(2, statements.size());
+            assertTrue(statements.get(0).isParsed());
+            assertEquals("SELECT 1", statements.get(1).getSql());
+        }
+    }
+
+    @Test
+    public void testStatementIsEmittedOnItsDelimiter() {
+        List<ParsedStatement> statements = new ArrayList<>();
+        IncrementalStatementParser parser = new IncrementalStatementParser(null, statements::add);
+
+        parser.feed("SELECT a FROM t1 WHERE b = ");
+        assertTrue(statements.isEmpty());
+        parser.feed("1; SELECT c");
+        assertEquals(1, statements.size());
+        assertEquals("SELECT a FROM t1 WHERE b = 1", statements.get(0).getStatement().toString());
+        assertEquals(9, parser.getBufferedLength());
+
+        parser.feed(" FROM t2");
+        parser.finish();
+        assertEquals(2, statements.size());
+        assertEquals(30, statements.get(1).getBegin());
+        assertEquals("SELECT c FROM t2", statements.get(1).getSql());
+
+        // the parser is reused for the next script
+        parser.feed("SELECT 1;");
+        assertEquals(0, statements.get(2).getBegin());
+        assertEquals(0, parser.getBufferedLength());
+    }
+}
@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.UncheckedJSQLParserException;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazySelectTest {
+
+    private static Statement parseLazily(String sql) throws JSQLParserException {
+        return CCJSqlParserUtil.parse(sql, parser -> parser.withLazySubqueries(true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM (SELECT a, (SELECT max(b) FROM t3) FROM t1 WHERE x IN (1, 2)) x WHERE y IN (SELECT c FROM t2)",
+            "WITH q AS (SELECT * FROM t1), r AS (SELECT * FROM q) SELECT * FROM q JOIN r ON q.a = r.a",
+            "(SELECT 1) UNION ALL (SELECT 2) ORDER BY 1",
+            "SELECT EXISTS (SELECT 1 FROM t WHERE a IN (SELECT b FROM u))",
+            "INSERT INTO t1 SELECT * FROM (SELECT a FROM t2) x",
+            "UPDATE t1 SET a = (SELECT b FROM t2 WHERE t2.id = t1.id)",
+            "SELECT * FROM (SELECT ? FROM t) x WHERE a = ?",
+            "SELECT * FROM (VALUES (1, 2)) x (a, b)"})
+    public void testSameAsEagerParsing(String sql) throws JSQLParserException {
+        Statement eager = CCJSqlParserUtil.parse(sql);
+        assertEquals(eager.toString(), parseLazily(sql).toString());
+        assertEquals(new TablesNamesFinder().getTableList(eager),
+                new TablesNamesFinder().getTableList(parseLazily(sql)));
+    }
+
+    @Test
+    public void testSubqueryIsParsedOnFirstAccess() throws JSQLParserException {
+        PlainSelect select = (PlainSelect) parseLazily("SELECT * FROM (SELECT a FROM (SELECT a FROM t1) y) x");
+        ParenthesedSelect subquery = (ParenthesedSelect) select.getFromItem();
+        assertFalse(subquery.isMaterialized());
+        assertEquals("x", subquery.getAlias().getName());
+
+        ParenthesedSelect nested = (ParenthesedSelect) subquery.getPlainSelect().getFromItem();
+        assertTrue(subquery.isMaterialized());
+        assertFalse(nested.isMaterialized());
+        assertEquals("SELECT a FROM t1", nested.getSelect().toString());
+    }
+
+    @Test
+    public void testSubqueryWithParametersIsParsedEagerly() throws JSQLParserException {
+        PlainSelect select = (PlainSelect) parseLazily("SELECT * FROM (SELECT a FROM t1 WHERE b = ?) x WHERE c = ?");
+        assertTrue(((ParenthesedSelect) select.getFromItem()).isMaterialized());
+        assertEquals("SELECT * FROM (SELECT a FROM t1 WHERE b = ?) x WHERE c = ?", select.toString());
+    }
+
+    @Test
+    public void testSetSelectReplacesLazySelect() throws JSQLParserException {
+        PlainSelect select = (PlainSelect) parseLazily("SELECT * FROM (SELECT a FROM t1) x");
+        ParenthesedSelect subquery = (ParenthesedSelect) select.getFromItem();
+        subquery.setSelect((Select) CCJSqlParserUtil.parse("SELECT b FROM t2"));
+        assertTrue(subquery.isMaterialized());
+        assertEquals("SELECT * FROM (SELECT b FROM t2) x", select.toString());
+    }
+
+    @Test
+    public void testBodyNotParseable() {
+        String sql = "SELECT * FROM (SELECT FROM) x";
+        LazySelect lazySelect = new LazySelect(sql, 15, 26, new FeatureConfiguration(),
+                IdentifierInterner.NONE);
+        assertEquals("SELECT FROM", lazySelect.toString());
+        UncheckedJSQLParserException ex = assertThrows(UncheckedJSQLParserException.class, lazySelect::get);
+        assertInstanceOf(JSQLParserException.class, ex.getCause());
+    }
+
+    @Test
+    public void testSyntaxErrorIsThrownOnFirstAccess() throws JSQLParserException {
+        Statement statement = parseLazily("SELECT * FROM (SELECT a FROM t WHERE) x");
+        assertThrows(UncheckedJSQLParserException.class, statement::toString);
+    }
+
+    @Test
+    public void testSerializationKeepsBodyUnparsed() throws Exception {
+        PlainSelect select = (PlainSelect) parseLazily("SELECT * FROM (SELECT a FROM t1) x");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(select);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            PlainSelect copy = (PlainSelect) in.readObject();
+            assertFalse(((ParenthesedSelect) copy.getFromItem()).isMaterialized());
+            assertEquals("SELECT * FROM (SELECT a FROM t1) x", copy.toString());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedStatementSpliteratorTest {
+
+    private static List<ParsedStatement> parse(String script, Charset charset, int windowSize,
+            List<Long> progress) throws IOException {
+        Path path = Files.createTempFile("statements", ".sql");
+        try {
+            Files.write(path, script.getBytes(charset));
+            try (MappedStatementSpliterator spliterator =
+                    new MappedStatementSpliterator(path, charset, null, windowSize)) {
+                spliterator.withProgressListener((position, size) -> progress.add(position));
+                return StreamSupport.stream(spliterator, false).collect(Collectors.toList());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {16, 64, MappedStatementSpliterator.DEFAULT_WINDOW_SIZE})
+    public void testOffsets(int windowSize) throws IOException {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            script.append("SELECT 'Grüße 😀;").append(i).append("' FROM t").append(i)
+                    .append(i % 3 == 0 ? "\n/\n" : ";\n");
+        }
+        byte[] bytes = script.toString().getBytes(StandardCharsets.UTF_8);
+        List<Long> progress = new ArrayList<>();
+        List<ParsedStatement> statements = parse(script.toString(), StandardCharsets.UTF_8, windowSize, progress);
+
+        assertEquals(200, statements.size());
+        for (int i = 0; i < statements.size(); i++) {
+            ParsedStatement statement = statements.get(i);
+            assertTrue(statement.isParsed());
+            assertEquals("SELECT 'Grüße 😀;" + i + "' FROM t" + i, statement.getSql());
+            assertEquals(statement.getSql(),
+                    script.substring((int) statement.getBegin(), (int) statement.getEnd()));
+            assertEquals(statement.getSql(), new String(bytes, (int) statement.getByteBegin(),
+                    (int) (statement.getByteEnd() - statement.getByteBegin()), StandardCharsets.UTF_8));
+        }
+        assertEquals(Long.valueOf(bytes.length), progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void testErrorRecovery() throws IOException {
+        String script = "SELECT 1;\nSELECT FROM WHERE;\nSELECT 'a;b' FROM t";
+        List<ParsedStatement> statements = parse(script, StandardCharsets.ISO_8859_1, 8, new ArrayList<>());
+        assertEquals(3, statements.size());
+        assertTrue(statements.get(0).isParsed());
+        assertFalse(statements.get(1).isParsed());
+        assertEquals("SELECT 'a;b' FROM t", statements.get(2).getStatement().toString());
+        assertEquals(script.indexOf("SELECT 'a"), statements.get(2).getByteBegin());
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        assertTrue(parse("", StandardCharsets.UTF_8, 16, new ArrayList<>()).isEmpty());
+        assertTrue(parse(" \n\n", StandardCharsets.UTF_8, 16, new ArrayList<>()).isEmpty());
+    }
+
+    @Test
+    public void testSplitsInTheDialectOfTheParser() throws IOException {
+        Path path = Files.createTempFile("statements", ".sql");
+        try {
+            Files.write(path, "INSERT INTO t VALUES ('a\\';b'); SELECT 1".getBytes(StandardCharsets.UTF_8));
+            try (Stream<ParsedStatement> stream = CCJSqlParserUtil.streamMappedStatements(path,
+                    StandardCharsets.UTF_8, parser -> parser.withBackslashEscapeCharacter(true))) {
+                List<ParsedStatement> statements = stream.collect(Collectors.toList());
+                assertEquals(2, statements.size());
+                assertTrue(statements.get(0).isParsed());
+                assertEquals("SELECT 1", statements.get(1).getSql());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testStream() throws IOException {
+        Path path = Files.createTempFile("statements", ".sql");
+        try {
+            Files.write(path, "SELECT 1; SELECT 2".getBytes(StandardCharsets.UTF_8));
+            try (Stream<ParsedStatement> stream =
+                    CCJSqlParserUtil.streamMappedStatements(path, StandardCharsets.UTF_8, null)) {
+                assertEquals(2, stream.count());
+            }
+            assertThrows(IllegalArgumentException.class,
+                    () -> new MappedStatementSpliterator(path, StandardCharsets.UTF_16, null));
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
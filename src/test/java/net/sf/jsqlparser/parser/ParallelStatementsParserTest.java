@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeoutException;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.statement.Statements;
+import net.sf.jsqlparser.statement.simpleparsing.CCJSqlParserManagerTest;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelStatementsParserTest {
+
+    @Test
+    public void testOrderAndOffsets() throws JSQLParserException {
+        String script = "SELECT a FROM t1;\nUPDATE t2 SET b = 1;\n  DELETE FROM t3";
+        ParsedStatements statements = CCJSqlParserUtil.parseStatementsParallel(script);
+
+        assertEquals(CCJSqlParserUtil.parseStatements(script).toString(), statements.toString());
+        List<ParsedStatement> parsedStatements = statements.getParsedStatements();
+        assertEquals(3, parsedStatements.size());
+        assertEquals(script.indexOf("DELETE"), parsedStatements.get(2).getBegin());
+        assertEquals(script.length(), parsedStatements.get(2).getEnd());
+        for (ParsedStatement parsedStatement : parsedStatements) {
+            assertEquals(parsedStatement.getSql(), script.substring((int) parsedStatement.getBegin(),
+                    (int) parsedStatement.getEnd()));
+        }
+        assertFalse(statements.hasErrors());
+    }
+
+    @Test
+    public void testErrorsPerStatement() {
+        String script = "SELECT 1; SELECT FROM WHERE; SELECT 3";
+        ParsedStatements statements = CCJSqlParserUtil.parseStatementsParallel(script);
+
+        assertEquals(2, statements.size());
+        assertEquals(3, statements.getParsedStatements().size());
+        List<ParsedStatement> errors = statements.getErrors();
+        assertEquals(1, errors.size());
+        assertEquals("SELECT FROM WHERE", errors.get(0).getSql());
+        assertEquals(script.indexOf("SELECT FROM"), errors.get(0).getBegin());
+        assertNull(errors.get(0).getStatement());
+    }
+
+    @Test
+    public void testSplitsInTheDialectOfTheParser() {
+        ParsedStatements statements = CCJSqlParserUtil.parseStatementsParallel(
+                "INSERT INTO t VALUES ('a\\';b'); SELECT 1", ForkJoinPool.commonPool(),
+                parser -> parser.withBackslashEscapeCharacter(true));
+
+        assertFalse(statements.hasErrors());
+        assertEquals(2, statements.getParsedStatements().size());
+        assertEquals("SELECT 1", statements.getParsedStatements().get(1).getSql());
+    }
+
+    @Test
+    public void testTimeOutPerStatement() {
+        ParsedStatements statements = CCJSqlParserUtil.parseStatementsParallel(
+                "SELECT 1; SELECT ((((((((((((((((((((((((((((((1)))))))))))))))))))))))))))))); SELECT 3",
+                ForkJoinPool.commonPool(), parser -> parser.withTimeOut(1));
+
+        // a timed out statement fails on its own, while the others are still parsed
+        assertEquals(3, statements.getParsedStatements().size());
+        assertEquals(3, statements.size() + statements.getErrors().size());
+        for (ParsedStatement error : statements.getErrors()) {
+            assertTrue(error.getError().getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void testSimpleParsingCorpus() throws Exception {
+        StringBuilder script = new StringBuilder();
+        Statements expected = new Statements();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                ParallelStatementsParserTest.class.getResourceAsStream("/simple_parsing.txt")))) {
+            String sql;
+            while ((sql = CCJSqlParserManagerTest.getStatement(in)) != null) {
+                script.append(sql).append(";\n");
+                expected.addAll(CCJSqlParserUtil.parseStatements(sql));
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParsedStatements statements = CCJSqlParserUtil.parseStatementsParallel(script.toString(), pool, null);
+            assertFalse(statements.hasErrors());
+            assertEquals(expected.toString(), statements.toString());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
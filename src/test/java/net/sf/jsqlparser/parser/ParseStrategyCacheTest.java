@@ -0,0 +1,143 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.feature.Feature;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.simpleparsing.CCJSqlParserManagerTest;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParseStrategyCacheTest {
+
+    @Test
+    public void testFingerprintIgnoresLiteralsCaseAndWhitespace() {
+        long fingerprint = ParseStrategyCache.fingerprint("SELECT a FROM t WHERE b = 1 AND c = 'x'");
+        assertEquals(fingerprint, ParseStrategyCache.fingerprint("select A  from T\nwhere b = 42 and c = 'it''s'"));
+        assertEquals(fingerprint, ParseStrategyCache.fingerprint("SELECT a FROM t WHERE b = 1.5 AND c = ''"));
+        assertNotEquals(fingerprint, ParseStrategyCache.fingerprint("SELECT a FROM t1 WHERE b = 1 AND c = 'x'"));
+        assertNotEquals(fingerprint, ParseStrategyCache.fingerprint("SELECT a FROM t WHERE b > 1 AND c = 'x'"));
+    }
+
+    @Test
+    public void testComplexShapeIsLearned() throws JSQLParserException {
+        // a private cache, the shared one is used by any test parsing at the same time
+        ParseStrategyCache cache = new ParseStrategyCache(16);
+
+        // needs COMPLEX parsing for the condition as function parameter
+        parse("SELECT func(a = 1 AND b = 2) FROM t", cache, null);
+        assertEquals(1, cache.getDoubleParseCount());
+        assertEquals(1, cache.getLearnedCount());
+        assertTrue(cache.needsComplexParsing(fingerprint("SELECT func(a = 1 AND b = 2) FROM t")));
+
+        assertEquals("SELECT func(a = 3 AND b = 4) FROM t",
+                parse("SELECT func(a = 3 AND b = 4) FROM t", cache, null).toString());
+        assertEquals(1, cache.getAvoidedDoubleParseCount());
+        assertEquals(1, cache.getDoubleParseCount());
+
+        // a simple statement and a failing one are not learned
+        parse("SELECT a FROM t", cache, null);
+        assertThrows(JSQLParserException.class, () -> parse("SELECT FROM WHERE", cache, null));
+        assertEquals(1, cache.getLearnedCount());
+
+        // without COMPLEX parsing, the learned shape fails
+        assertThrows(JSQLParserException.class, () -> parse("SELECT func(a = 3 AND b = 4) FROM t", cache,
+                parser -> parser.withAllowComplexParsing(false)));
+
+        cache.clear();
+        assertFalse(cache.needsComplexParsing(fingerprint("SELECT func(a = 1 AND b = 2) FROM t")));
+    }
+
+    @Test
+    public void testShapesAreLearnedPerDialect() throws JSQLParserException {
+        ParseStrategyCache cache = new ParseStrategyCache(16);
+        parse("SELECT func(a = 1 AND b = 2) FROM t", cache, null);
+        assertEquals(1, cache.getLearnedCount());
+
+        parse("SELECT func(a = 1 AND b = 2) FROM t", cache, parser -> parser.withSquareBracketQuotation(true));
+        assertEquals(0, cache.getAvoidedDoubleParseCount());
+        assertEquals(2, cache.getLearnedCount());
+        assertNotEquals(fingerprint("SELECT 1"),
+                ParseStrategyCache.fingerprint("SELECT 1",
+                        new FeatureConfiguration().setValue(Feature.allowSquareBracketQuotation, true)));
+    }
+
+    /**
+     * A shape sent to COMPLEX parsing by a collision must still parse.
+     */
+    @Test
+    public void testComplexParsingAcceptsWhatSimpleParsingAccepts() throws Exception {
+        List<String> sqls = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                ParseStrategyCacheTest.class.getResourceAsStream("/simple_parsing.txt"), StandardCharsets.UTF_8))) {
+            String sql;
+            while ((sql = CCJSqlParserManagerTest.getStatement(in)) != null) {
+                sqls.add(sql);
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(
+                Paths.get("src/test/resources/net/sf/jsqlparser/statement/select/oracle-tests"), "*.sql")) {
+            for (Path file : files) {
+                sqls.add(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+        }
+
+        int parsed = 0;
+        for (String sql : sqls) {
+            Statement simple;
+            try {
+                simple = CCJSqlParserUtil.parseStatement(
+                        CCJSqlParserUtil.newParser(sql).withAllowComplexParsing(false));
+            } catch (JSQLParserException ex) {
+                continue;
+            }
+            Statement complex =
+                    CCJSqlParserUtil.parseStatement(CCJSqlParserUtil.newParser(sql).withAllowComplexParsing(true));
+            assertEquals(simple.toString(), complex.toString(), sql);
+            parsed++;
+        }
+        assertTrue(parsed > 100);
+    }
+
+    @Test
+    public void testComplexScriptShapeIsLearned() throws JSQLParserException {
+        ParseStrategyCache cache = new ParseStrategyCache(16);
+        String sqls = "SELECT func(a = 1 AND b = 2) FROM t; SELECT 1";
+        assertEquals(2, CCJSqlParserUtil.parseStatements(sqls, null, null, cache).size());
+        assertEquals(1, cache.getLearnedCount());
+        assertEquals(2, CCJSqlParserUtil.parseStatements(sqls, null, null, cache).size());
+        assertEquals(1, cache.getAvoidedDoubleParseCount());
+    }
+
+    private static long fingerprint(String sql) {
+        return ParseStrategyCache.fingerprint(sql, new FeatureConfiguration());
+    }
+
+    private static Statement parse(String sql, ParseStrategyCache cache, Consumer<CCJSqlParser> consumer)
+            throws JSQLParserException {
+        return CCJSqlParserUtil.parse(sql, null, consumer, cache);
+    }
+}
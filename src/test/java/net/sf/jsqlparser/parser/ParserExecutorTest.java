@@ -0,0 +1,83 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.statement.select.Select;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParserExecutorTest {
+
+    @Test
+    public void testDefaultExecutorIsShared() throws JSQLParserException {
+        ParserExecutor executor = ParserExecutor.getDefault();
+        assertTrue(CCJSqlParserUtil.parse("SELECT * FROM mytable") instanceof Select);
+        assertSame(executor, ParserExecutor.getDefault());
+    }
+
+    @Test
+    public void testExecutorCountsFinishedStatements() throws Exception {
+        ParserExecutor executor = new ParserExecutor(2, 4);
+        try {
+            assertTrue(CCJSqlParserUtil.parse("SELECT * FROM mytable", executor, null) instanceof Select);
+            assertEquals(2, CCJSqlParserUtil.parseStatements("SELECT 1; SELECT 2", executor, null).size());
+        } finally {
+            executor.shutdown();
+        }
+        // a worker finishes its bookkeeping only after the caller has received the result
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, executor.getInFlightCount());
+        assertEquals(2, executor.getCompletedTaskCount());
+    }
+
+    @Test
+    public void testDefaultExecutorRecreatedAfterShutdown() throws JSQLParserException {
+        ParserExecutor executor = ParserExecutor.getDefault();
+        ParserExecutor.shutdownDefault();
+        assertTrue(executor.isShutdown());
+        assertNotSame(executor, ParserExecutor.getDefault());
+        assertTrue(CCJSqlParserUtil.parse("SELECT * FROM mytable") instanceof Select);
+    }
+
+    @Test
+    public void testRejectedWhenQueueIsFull() throws Exception {
+        ParserExecutor executor = new ParserExecutor(1, 1);
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            executor.submit(() -> {
+                latch.await();
+                return null;
+            });
+            executor.submit(() -> {
+                latch.await();
+                return null;
+            });
+            assertEquals(2, executor.getInFlightCount());
+            assertEquals(1, executor.getQueueSize());
+
+            CCJSqlParser parser = CCJSqlParserUtil.newParser("SELECT * FROM mytable");
+            assertThrows(JSQLParserException.class, () -> CCJSqlParserUtil.parseStatement(parser, executor));
+            assertEquals(1, executor.getRejectedCount());
+            assertEquals(2, executor.getInFlightCount());
+        } finally {
+            latch.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, executor.getInFlightCount());
+    }
+}
@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.JdbcParameter;
+import net.sf.jsqlparser.parser.feature.Feature;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParserPoolTest {
+
+    @Test
+    public void testReuseAndReset() throws ParseException {
+        CCJSqlParser parser = ParserPool.acquire("SELECT ? FROM t1 WHERE a = ?");
+        try {
+            parser.withSquareBracketQuotation(true).setErrorRecovery(true);
+            parser.Statement();
+            // a nested parse gets its own parser
+            CCJSqlParser nested = ParserPool.acquire("SELECT 1");
+            assertNotSame(parser, nested);
+            ParserPool.release(nested);
+        } finally {
+            ParserPool.release(parser);
+        }
+
+        CCJSqlParser reused = ParserPool.acquire("SELECT  b  FROM t2");
+        try {
+            assertSame(parser, reused);
+            assertFalse(reused.getConfiguration().getAsBoolean(Feature.allowSquareBracketQuotation));
+            assertTrue(reused.getParseErrors().isEmpty());
+            // the token positions refer to the new text
+            reused.getNextToken();
+            assertEquals(8, reused.getNextToken().absoluteBegin - 1);
+        } finally {
+            ParserPool.release(reused);
+        }
+    }
+
+    @Test
+    public void testJdbcParametersAfterReuse() throws JSQLParserException {
+        CCJSqlParserUtil.parse("SELECT ? FROM t WHERE a = ?", null, null);
+        PlainSelect select = ((Select) CCJSqlParserUtil.parse("SELECT ? FROM t", null, null)).getPlainSelect();
+        assertEquals(1, ((JdbcParameter) select.getSelectItems().get(0).getExpression()).getIndex());
+    }
+
+    @Test
+    public void testClear() {
+        CCJSqlParser parser = ParserPool.acquire("SELECT 1");
+        ParserPool.release(parser);
+        ParserPool.clear();
+        CCJSqlParser next = ParserPool.acquire("SELECT 1");
+        // a parser in use is dropped on its release
+        ParserPool.clear();
+        ParserPool.release(next);
+        assertNotSame(parser, next);
+        CCJSqlParser last = ParserPool.acquire("SELECT 1");
+        ParserPool.release(last);
+        assertNotSame(next, last);
+    }
+
+    @Test
+    public void testLongTextIsNotRetained() {
+        StringBuilder sql = new StringBuilder("SELECT 1");
+        while (sql.length() <= ParserPool.MAXIMUM_RETAINED_LENGTH) {
+            sql.append(" + 1");
+        }
+        CCJSqlParser parser = ParserPool.acquire(sql.toString());
+        ParserPool.release(parser);
+        CCJSqlParser next = ParserPool.acquire("SELECT 1");
+        ParserPool.release(next);
+        assertNotSame(parser, next);
+    }
+}
@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.List;
+import net.sf.jsqlparser.statement.Statement;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParserProfileTest {
+
+    private static final String SQL = "SELECT a FROM t WHERE ((((a = 1) OR (b IN (SELECT c FROM u))) AND d > 2))";
+
+    @Test
+    public void testParsesWithAndWithoutHooks() throws ParseException {
+        ParserProfile profile = new ParserProfile();
+        Statement statement = profile.newParser(SQL).Statement();
+        assertEquals(SQL, statement.toString());
+        assertEquals(ParserProfile.isAvailable(), !profile.getProductions().isEmpty());
+    }
+
+    @Test
+    public void testRankedReport() throws ParseException {
+        Assumptions.assumeTrue(ParserProfile.isAvailable(),
+                "the parser has been generated without tracing hooks, use the profile parser.profiling");
+        ParserProfile profile = new ParserProfile();
+        for (int i = 0; i < 10; i++) {
+            profile.newParser(SQL).Statement();
+        }
+        List<ParserProfile.Entry> productions = profile.getProductions();
+        ParserProfile.Entry statement = productions.stream()
+                .filter(entry -> entry.getName().equals("Statement")).findFirst().get();
+        assertEquals(10, statement.getInvocations());
+        for (int i = 1; i < productions.size(); i++) {
+            assertTrue(productions.get(i - 1).getSelfNanos() >= productions.get(i).getSelfNanos());
+        }
+
+        List<ParserProfile.Entry> lookaheads = profile.getLookaheads();
+        assertFalse(lookaheads.isEmpty());
+        assertTrue(lookaheads.stream().anyMatch(entry -> entry.getName().contains(" jj_2_")));
+        assertTrue(lookaheads.get(0).getScannedTokens() > 0);
+
+        String[] lines = profile.report(15).split("\\R");
+        int listedLookaheads = Math.min(15, lookaheads.size());
+        int listedProductions = Math.min(15, productions.size());
+        assertEquals(5 + listedLookaheads + listedProductions, lines.length);
+        assertEquals("Lookaheads by time", lines[0]);
+        assertTrue(lines[2].endsWith("  " + lookaheads.get(0).getName()));
+        assertEquals("", lines[2 + listedLookaheads]);
+        assertEquals("Productions by self time", lines[3 + listedLookaheads]);
+        assertTrue(lines[5 + listedLookaheads].endsWith("  " + productions.get(0).getName()));
+
+        profile.reset();
+        assertTrue(profile.getLookaheads().isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class SimpleCharStreamTest {
+
+    private static List<String> positions(SimpleCharStream stream) {
+        CCJSqlParserTokenManager tokenManager = new CCJSqlParserTokenManager(stream);
+        List<String> positions = new ArrayList<>();
+        for (Token token = tokenManager.getNextToken(); token.kind != CCJSqlParserConstants.EOF; token =
+                tokenManager.getNextToken()) {
+            positions.add(token.image + " " + token.beginLine + ":" + token.beginColumn + "-" + token.endLine + ":"
+                    + token.endColumn + " " + token.absoluteBegin);
+        }
+        return positions;
+    }
+
+    /**
+     * The lines and columns computed on demand for a String are the same as the ones tracked for
+     * every character read from a Reader.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"SELECT a,\n  b FROM t1\n\nWHERE c = 'x\ny'", "SELECT a,\r\n  b\r\nFROM t1\r\n",
+            "SELECT a,\r\r  b\rFROM t1\r", "\tSELECT\ta,\n\t\tb -- comment\n\tFROM t1", "\n\nSELECT 1\n", "SELECT 1"})
+    public void testLinesAndColumnsOfString(String sql) {
+        for (int tabSize : new int[] {1, 4}) {
+            SimpleCharStream string = new SimpleCharStream(new StringProvider(sql), 3, 5);
+            string.setTabSize(tabSize);
+            SimpleCharStream reader = new SimpleCharStream(new StreamProvider(new StringReader(sql)), 3, 5);
+            reader.setTabSize(tabSize);
+            assertEquals(positions(reader), positions(string));
+            assertEquals(sql, string.getSource());
+            assertNull(reader.getSource());
+        }
+    }
+}
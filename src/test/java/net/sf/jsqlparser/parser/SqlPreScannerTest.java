@@ -0,0 +1,62 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import net.sf.jsqlparser.parser.SqlPreScanner.StatementKind;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SqlPreScannerTest {
+
+    @Test
+    public void testNestingDepthIgnoresLiteralsAndComments() {
+        SqlPreScanner scan = SqlPreScanner.of("SELECT concat('((((', \"a(b\", `c(d`) /* ((( */ FROM t -- (((\n WHERE x = $$((($$");
+        assertEquals(1, scan.getNestingDepth());
+        assertFalse(scan.hasUnbalancedParentheses());
+        assertFalse(scan.hasUnterminatedLiteral());
+
+        assertEquals(3, SqlPreScanner.of("SELECT ((a + (b)))").getNestingDepth());
+        assertTrue(SqlPreScanner.of("SELECT ((a + (b))").hasUnbalancedParentheses());
+        assertTrue(SqlPreScanner.of("SELECT 'abc").hasUnterminatedLiteral());
+    }
+
+    @Test
+    public void testStatementCountAndKind() {
+        String sql = "-- first\n with x AS (SELECT 1) SELECT * FROM x; ; UPDATE t SET a = ';';\n";
+        SqlPreScanner scan = SqlPreScanner.of(sql);
+        assertEquals(2, scan.getStatementCount());
+        assertSame(StatementKind.SELECT, scan.getStatementKind());
+        assertEquals(sql.length(), scan.getLength());
+
+        // the scanner can be reused
+        assertSame(scan, scan.scan("insert into t values (1)"));
+        assertEquals(1, scan.getStatementCount());
+        assertSame(StatementKind.INSERT, scan.getStatementKind());
+        assertSame(StatementKind.SELECT, SqlPreScanner.of("(SELECT 1) UNION (SELECT 2)").getStatementKind());
+        assertSame(StatementKind.OTHER, SqlPreScanner.of("GRANT SELECT ON t TO u").getStatementKind());
+        assertSame(StatementKind.EMPTY, SqlPreScanner.of(" /* nothing */ ;").getStatementKind());
+    }
+
+    @Test
+    public void testDialectHints() {
+        assertTrue(SqlPreScanner.of("SELECT [a] FROM [t]").hasSquareBrackets());
+        assertFalse(SqlPreScanner.of("SELECT '[a]' FROM t").hasSquareBrackets());
+        assertTrue(SqlPreScanner.of("SELECT 'it\\'s' FROM t").hasBackslashEscapes());
+        assertFalse(SqlPreScanner.of("SELECT 'it''s' FROM t").hasBackslashEscapes());
+    }
+
+    @Test
+    public void testUtilNestingDepthIgnoresLiterals() {
+        assertEquals(1, CCJSqlParserUtil.getNestingDepth("SELECT concat('(((((((((((((', 'a') FROM t"));
+    }
+}
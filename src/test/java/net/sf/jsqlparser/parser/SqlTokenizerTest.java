@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.sf.jsqlparser.parser.feature.Feature;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SqlTokenizerTest {
+
+    private static List<String> tokenize(SqlTokenizer tokenizer, String sql) {
+        List<String> tokens = new ArrayList<>();
+        while (tokenizer.next()) {
+            assertEquals(sql.substring(tokenizer.getBegin(), tokenizer.getEnd()), tokenizer.getImage());
+            tokens.add(tokenizer.getKind() + ":" + tokenizer.getImage());
+        }
+        return tokens;
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT a, 'b''c', \"d\" FROM t1 WHERE e >= 1.5e3 AND f <> ?",
+            "SELECT 'a\\' AS x FROM [t 1]",
+            "INSERT INTO t (a) VALUES ($1) -- the end",
+            "CREATE FUNCTION f() AS $$ BEGIN /* ; */ RETURN 1; END $$"})
+    public void testSameAsTokenManager(String sql) {
+        CCJSqlParserTokenManager tokenManager =
+                new CCJSqlParserTokenManager(new SimpleCharStream(new StringProvider(sql), 1, 1));
+        List<String> expected = new ArrayList<>();
+        for (Token token = tokenManager.getNextToken(); token.kind != CCJSqlParserConstants.EOF;
+                token = tokenManager.getNextToken()) {
+            assertEquals(token.image, sql.substring(token.absoluteBegin - 1, token.absoluteEnd - 1));
+            expected.add(token.kind + ":" + token.image);
+        }
+        assertEquals(expected, tokenize(new SqlTokenizer(sql).withImages(true), sql));
+    }
+
+    @Test
+    public void testComments() {
+        String sql = "SELECT /* one */ /* two */ a -- three\nFROM t";
+        SqlTokenizer tokenizer = new SqlTokenizer(sql).withImages(true).withComments(true);
+        List<String> tokens = tokenize(tokenizer, sql);
+        assertEquals(CCJSqlParserConstants.MULTI_LINE_COMMENT + ":/* one */", tokens.get(1));
+        assertEquals(CCJSqlParserConstants.MULTI_LINE_COMMENT + ":/* two */", tokens.get(2));
+        assertEquals(CCJSqlParserConstants.LINE_COMMENT + ":-- three", tokens.get(4));
+        assertEquals(7, tokens.size());
+    }
+
+    @Test
+    public void testDialectSwitches() {
+        String sql = "SELECT [a b] FROM t";
+        SqlTokenizer tokenizer = new SqlTokenizer(sql, new FeatureConfiguration()
+                .setValue(Feature.allowSquareBracketQuotation, true));
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.next());
+        assertEquals(CCJSqlParserConstants.S_QUOTED_IDENTIFIER, tokenizer.getKind());
+        assertEquals("[a b]", sql.substring(tokenizer.getBegin(), tokenizer.getEnd()));
+        assertNull(tokenizer.getImage());
+
+        tokenizer = new SqlTokenizer(sql);
+        tokenizer.next();
+        tokenizer.next();
+        assertEquals("[", sql.substring(tokenizer.getBegin(), tokenizer.getEnd()));
+
+        sql = "SELECT 'a\\'b'";
+        tokenizer = new SqlTokenizer(sql, new FeatureConfiguration()
+                .setValue(Feature.allowBackslashEscapeCharacter, true));
+        tokenizer.next();
+        tokenizer.next();
+        assertEquals("'a\\'b'", sql.substring(tokenizer.getBegin(), tokenizer.getEnd()));
+        assertFalse(tokenizer.next());
+    }
+
+    @Test
+    public void testTokenBuffer() {
+        SqlTokenizer tokenizer = new SqlTokenizer("SELECT a FROM t");
+        int[] tokens = new int[2 * SqlTokenizer.TOKEN_SIZE];
+        assertEquals(2, tokenizer.next(tokens));
+        assertArrayEquals(new int[] {CCJSqlParserConstants.K_SELECT, 0, 6, CCJSqlParserConstants.S_IDENTIFIER, 7, 8},
+                tokens);
+        assertEquals(2, tokenizer.next(tokens));
+        assertEquals(0, tokenizer.next(tokens));
+        assertFalse(tokenizer.next());
+
+        tokenizer.reset("UPDATE t");
+        assertEquals(2, tokenizer.next(tokens));
+        assertEquals(CCJSqlParserConstants.K_UPDATE, tokens[0]);
+    }
+}
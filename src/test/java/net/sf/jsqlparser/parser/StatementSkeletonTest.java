@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.SqlPreScanner.StatementKind;
+import net.sf.jsqlparser.util.TablesNamesFinder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StatementSkeletonTest {
+
+    private static void assertSkeleton(String sql, StatementKind kind, String... tables) throws JSQLParserException {
+        StatementSkeleton skeleton = StatementSkeleton.parse(sql);
+        assertSame(kind, skeleton.getStatementKind());
+        assertEquals(Arrays.asList(tables), skeleton.getTables());
+        assertFalse(skeleton.isFullyParsed(), "fully parsed: " + sql);
+        assertNull(skeleton.getStatement());
+    }
+
+    @Test
+    public void testQueries() throws JSQLParserException {
+        assertSkeleton("SELECT a, extract(YEAR FROM b) FROM s.t1 x LEFT JOIN t2 ON x.id = t2.id, t3 WHERE a IN (SELECT c FROM t4)",
+                StatementKind.SELECT, "s.t1", "t2", "t3", "t4");
+        assertSkeleton("(SELECT a FROM t1) UNION ALL SELECT b FROM \"T2\" ORDER BY 1", StatementKind.SELECT, "t1", "\"T2\"");
+        assertSkeleton("SELECT (SELECT max(b) FROM t2), 'FROM t3' FROM t1 /* FROM t4 */ JOIN t1 USING (id)",
+                StatementKind.SELECT, "t2", "t1");
+        assertSkeleton("SELECT * FROM (SELECT a FROM t1) x WHERE EXISTS (SELECT 1 FROM t2 WHERE t2.a = x.a)",
+                StatementKind.SELECT, "t1", "t2");
+        assertSkeleton("VALUES (1, 2)", StatementKind.SELECT);
+    }
+
+    @Test
+    public void testWithItemsAreNoTables() throws JSQLParserException {
+        assertSkeleton("WITH RECURSIVE x (a) AS (SELECT a FROM t1), y AS (SELECT a FROM x) SELECT * FROM y JOIN t2 ON y.a = t2.a",
+                StatementKind.SELECT, "t1", "t2");
+        assertSkeleton("WITH x AS (SELECT a FROM t1) INSERT INTO t2 SELECT * FROM x", StatementKind.INSERT, "t1", "t2");
+        assertSkeleton("SELECT * FROM (WITH x AS (SELECT 1 FROM t1) SELECT * FROM x) y", StatementKind.SELECT, "t1");
+    }
+
+    @Test
+    public void testDataManipulation() throws JSQLParserException {
+        assertSkeleton("INSERT INTO t1 (a, b) VALUES (1, (SELECT max(b) FROM t2))", StatementKind.INSERT, "t1", "t2");
+        assertSkeleton("INSERT IGNORE INTO t1 SELECT * FROM t2", StatementKind.INSERT, "t1", "t2");
+        assertSkeleton("UPDATE t1 SET a = (SELECT b FROM t2), c = 1 FROM t3 WHERE t1.id = t3.id", StatementKind.UPDATE,
+                "t1", "t2", "t3");
+        assertSkeleton("UPDATE t1 JOIN t2 ON t1.id = t2.id SET t1.a = t2.a", StatementKind.UPDATE, "t1", "t2");
+        assertSkeleton("DELETE FROM t1 USING t2 WHERE t1.id = t2.id;", StatementKind.DELETE, "t1", "t2");
+    }
+
+    @Test
+    public void testDataDefinition() throws JSQLParserException {
+        assertSkeleton("CREATE TABLE IF NOT EXISTS t1 (a INT REFERENCES t2 (a))", StatementKind.CREATE, "t1");
+        assertSkeleton("CREATE OR REPLACE VIEW v AS SELECT * FROM t1", StatementKind.CREATE, "v", "t1");
+        assertSkeleton("ALTER TABLE t1 ADD COLUMN b INT", StatementKind.ALTER, "t1");
+        assertSkeleton("DROP TABLE IF EXISTS s.t1 CASCADE", StatementKind.DROP, "s.t1");
+        assertSkeleton("TRUNCATE TABLE t1", StatementKind.TRUNCATE, "t1");
+        assertTrue(StatementSkeleton.parse("DROP TABLE t1").getStatementKind().isDdl());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SELECT * FROM TABLE(f(1)) x JOIN t1 ON 1 = 1",
+            "SELECT * FROM (t1 JOIN t2 ON t1.id = t2.id)", "SELECT * FROM t1, LATERAL (SELECT * FROM t2) x",
+            "SELECT a INTO b FROM t1", "SELECT * FROM t1 WHERE a IS DISTINCT FROM b",
+            "SELECT * FROM t1@dblink", "MERGE INTO t1 USING t2 ON (t1.id = t2.id) WHEN MATCHED THEN UPDATE SET t1.a = t2.a",
+            "DROP INDEX i1"})
+    public void testFallBackToFullParse(String sql) throws JSQLParserException {
+        StatementSkeleton skeleton = StatementSkeleton.parse(sql);
+        assertTrue(skeleton.isFullyParsed());
+        assertNotNull(skeleton.getStatement());
+        assertEquals(new TablesNamesFinder().getTableList(skeleton.getStatement()), skeleton.getTables());
+    }
+
+    @Test
+    public void testFallBackForUnsupportedStatements() throws JSQLParserException {
+        StatementSkeleton skeleton = StatementSkeleton.parse("CREATE INDEX i1 ON t1 (a)");
+        assertTrue(skeleton.isFullyParsed());
+        assertSame(StatementKind.CREATE, skeleton.getStatementKind());
+        assertEquals(Collections.emptyList(), skeleton.getTables());
+
+        assertThrows(JSQLParserException.class, () -> StatementSkeleton.parse("SELECT * FROM TABLE(f(1)"));
+        assertThrows(JSQLParserException.class, () -> StatementSkeleton.parse("SELECT 'a FROM t1"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"SELECT a.x, b.y FROM a JOIN b ON a.id = b.id WHERE a.z IN (SELECT z FROM c)",
+            "SELECT * FROM s1.t1 x, s2.t2 y WHERE x.id = y.id(+)",
+            "WITH q AS (SELECT * FROM t1) SELECT * FROM q, t2",
+            "INSERT INTO t1 (a) SELECT a FROM t2 WHERE NOT EXISTS (SELECT 1 FROM t3)",
+            "UPDATE t1 SET a = (SELECT b FROM t2 WHERE t2.id = t1.id)",
+            "DELETE FROM t1 WHERE id IN (SELECT id FROM t2)", "TRUNCATE TABLE t1", "DROP TABLE t1"})
+    public void testSameTablesAsTablesNamesFinder(String sql) throws JSQLParserException {
+        StatementSkeleton skeleton = StatementSkeleton.parse(sql);
+        assertFalse(skeleton.isFullyParsed());
+        assertEquals(new HashSet<>(new TablesNamesFinder().getTableList(CCJSqlParserUtil.parse(sql))),
+                new HashSet<>(skeleton.getTables()));
+    }
+
+    @Test
+    public void testConfiguration() throws JSQLParserException {
+        StatementSkeleton skeleton = CCJSqlParserUtil.parseSkeleton("SELECT * FROM [dbo].[t1]",
+                parser -> parser.withSquareBracketQuotation(true));
+        assertFalse(skeleton.isFullyParsed());
+        assertEquals(Collections.singletonList("[dbo].[t1]"), skeleton.getTables());
+    }
+}
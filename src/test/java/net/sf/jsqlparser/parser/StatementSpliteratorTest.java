@@ -0,0 +1,154 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StatementSpliteratorTest {
+
+    @Test
+    public void testErrorRecovery() {
+        String script = "SELECT 1;\nSELECT FROM WHERE;\nSELECT 'a;b' FROM t\n";
+        try (Stream<ParsedStatement> stream = CCJSqlParserUtil.streamStatements(new StringReader(script), null)) {
+            List<ParsedStatement> statements = stream.collect(Collectors.toList());
+            assertEquals(3, statements.size());
+            assertTrue(statements.get(0).isParsed());
+            assertFalse(statements.get(1).isParsed());
+            assertNull(statements.get(1).getStatement());
+            assertEquals("SELECT 'a;b' FROM t", statements.get(2).getStatement().toString());
+            assertEquals(script.indexOf("SELECT 'a"), statements.get(2).getBegin());
+        }
+    }
+
+    @Test
+    public void testSplitsInTheDialectOfTheParser() throws IOException {
+        String script = "INSERT INTO t VALUES ('a\\';b'); SELECT 1";
+        try (Stream<ParsedStatement> stream = CCJSqlParserUtil.streamStatements(new StringReader(script),
+                parser -> parser.withBackslashEscapeCharacter(true))) {
+            List<ParsedStatement> statements = stream.collect(Collectors.toList());
+            assertEquals(2, statements.size());
+            assertTrue(statements.get(0).isParsed());
+            assertEquals("SELECT 1", statements.get(1).getSql());
+        }
+
+        Path path = Files.createTempFile("statements", ".sql");
+        try {
+            Files.write(path, script.getBytes(StandardCharsets.UTF_8));
+            try (Stream<ParsedStatement> stream = CCJSqlParserUtil.streamStatements(path, StandardCharsets.UTF_8,
+                    parser -> parser.withBackslashEscapeCharacter(true))) {
+                assertEquals(2, stream.filter(ParsedStatement::isParsed).count());
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testEarlyTermination() {
+        AtomicBoolean closed = new AtomicBoolean();
+        StringReader reader = new StringReader("SELECT 1; SELECT 2; SELECT 3") {
+            @Override
+            public void close() {
+                closed.set(true);
+                super.close();
+            }
+        };
+        try (Stream<ParsedStatement> stream = CCJSqlParserUtil.streamStatements(reader, null)) {
+            assertEquals("SELECT 1", stream.findFirst().get().getSql());
+        }
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testParallelFile() throws IOException {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            script.append("SELECT a, b FROM t").append(i).append(" WHERE c = 'x;").append(i).append("';\n");
+        }
+        Path path = Files.createTempFile("statements", ".sql");
+        try {
+            Files.write(path, script.toString().getBytes(StandardCharsets.UTF_8));
+
+            StatementSpliterator spliterator = new StatementSpliterator(path, StandardCharsets.UTF_8, null);
+            Spliterator<ParsedStatement> prefix = spliterator.trySplit();
+            assertNotNull(prefix);
+
+            List<ParsedStatement> statements;
+            try (Stream<ParsedStatement> stream =
+                    CCJSqlParserUtil.streamStatements(path, StandardCharsets.UTF_8, null)) {
+                statements = stream.parallel().collect(Collectors.toList());
+            }
+            assertEquals(5000, statements.size());
+            for (int i = 0; i < statements.size(); i++) {
+                ParsedStatement statement = statements.get(i);
+                assertTrue(statement.isParsed());
+                assertTrue(statement.getSql().contains("FROM t" + i + " "));
+                assertEquals(statement.getSql(),
+                        script.substring((int) statement.getBegin(), (int) statement.getEnd()));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testRecursiveSplitsCoverTheFile() throws IOException {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            script.append("SELECT a FROM t").append(i).append(";\n");
+        }
+        Path path = Files.createTempFile("statements", ".sql");
+        try {
+            Files.write(path, script.toString().getBytes(StandardCharsets.UTF_8));
+            List<Spliterator<ParsedStatement>> parts = new ArrayList<>();
+            split(new StatementSpliterator(path, StandardCharsets.UTF_8, null), parts);
+            assertTrue(parts.size() >= 3);
+
+            List<ParsedStatement> statements = new ArrayList<>();
+            for (Spliterator<ParsedStatement> part : parts) {
+                part.forEachRemaining(statements::add);
+            }
+            assertEquals(10000, statements.size());
+            for (int i = 0; i < statements.size(); i++) {
+                assertEquals("SELECT a FROM t" + i, statements.get(i).getSql());
+                assertEquals(statements.get(i).getSql(),
+                        script.substring((int) statements.get(i).getBegin(), (int) statements.get(i).getEnd()));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static void split(Spliterator<ParsedStatement> spliterator, List<Spliterator<ParsedStatement>> parts) {
+        Spliterator<ParsedStatement> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            parts.add(spliterator);
+        } else {
+            split(prefix, parts);
+            split(spliterator, parts);
+        }
+    }
+}
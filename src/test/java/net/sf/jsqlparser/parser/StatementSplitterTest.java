@@ -0,0 +1,133 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.sf.jsqlparser.parser.feature.Feature;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class StatementSplitterTest {
+
+    private static List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        int[] ranges = StatementSplitter.split(script, null);
+        for (int i = 0; i < ranges.length; i += 2) {
+            statements.add(script.substring(ranges[i], ranges[i + 1]));
+        }
+        return statements;
+    }
+
+    @Test
+    public void testSemicolons() {
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2", "SELECT 3"),
+                split("SELECT 1; SELECT 2;\n SELECT 3"));
+        assertEquals(Arrays.asList("SELECT 1"), split(" ;; SELECT 1;;  "));
+    }
+
+    @Test
+    public void testLiteralsAndComments() {
+        assertEquals(Arrays.asList("SELECT 'a;''b' FROM \"x;y\"", "SELECT `c;d`"),
+                split("SELECT 'a;''b' FROM \"x;y\"; SELECT `c;d`"));
+        assertEquals(Arrays.asList("SELECT 1 -- a; comment\n FROM t", "/* b; */ SELECT 2"),
+                split("SELECT 1 -- a; comment\n FROM t; /* b; */ SELECT 2"));
+        assertEquals(Arrays.asList("CREATE FUNCTION f() AS $$ BEGIN RETURN 1; END; $$ LANGUAGE plpgsql",
+                "SELECT f()"),
+                split("CREATE FUNCTION f() AS $$ BEGIN RETURN 1; END; $$ LANGUAGE plpgsql; SELECT f()"));
+    }
+
+    @Test
+    public void testBlocks() {
+        assertEquals(Arrays.asList("BEGIN\n SELECT 1;\n IF x THEN SELECT 2; END IF;\nEND", "SELECT 3"),
+                split("BEGIN\n SELECT 1;\n IF x THEN SELECT 2; END IF;\nEND; SELECT 3"));
+        assertEquals(Arrays.asList("BEGIN TRANSACTION", "SELECT 1", "COMMIT"),
+                split("BEGIN TRANSACTION; SELECT 1; COMMIT"));
+        assertEquals(Arrays.asList("BEGIN", "SELECT 1"), split("BEGIN; SELECT 1"));
+        assertEquals(Arrays.asList("SELECT CASE WHEN a THEN 1 ELSE 2 END FROM t", "SELECT 2"),
+                split("SELECT CASE WHEN a THEN 1 ELSE 2 END FROM t; SELECT 2"));
+    }
+
+    @Test
+    public void testDialectDelimiters() {
+        assertEquals(Arrays.asList("BEGIN\n NULL;\nEND", "SELECT 1 FROM dual"),
+                split("BEGIN\n NULL;\nEND;\n/\nSELECT 1 FROM dual\n/\n"));
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2 / 3", "SELECT 4"),
+                split("SELECT 1\ngo\nSELECT 2 / 3\nGO -- batch\nSELECT 4"));
+        assertEquals(Arrays.asList("SELECT 1", "SELECT 2"), split("SELECT 1\n\n\nSELECT 2"));
+        assertEquals(Arrays.asList("SELECT 1\n\nFROM t"), split("SELECT 1\n\nFROM t"));
+    }
+
+    @Test
+    public void testDialectSwitches() {
+        String script = "SELECT 'a\\';b' FROM [c;d]; SELECT 1";
+        // by default the backslash does not escape the quote
+        assertEquals(Arrays.asList("SELECT 'a\\'", "b' FROM [c;d]; SELECT 1"), split(script));
+
+        FeatureConfiguration configuration = new FeatureConfiguration()
+                .setValue(Feature.allowBackslashEscapeCharacter, true)
+                .setValue(Feature.allowSquareBracketQuotation, true);
+        int[] ranges = StatementSplitter.split(script, configuration);
+        assertArrayEquals(new int[] {0, 25, 27, 35}, ranges);
+        assertEquals("SELECT 'a\\';b' FROM [c;d]", script.substring(ranges[0], ranges[1]));
+    }
+
+    @Test
+    public void testChunksAndOffsets() {
+        String script = "SELECT 'x;y' FROM t;\nBEGIN SELECT 1; END;\n/* ; */SELECT 2";
+        StatementSplitter splitter = new StatementSplitter();
+        List<String> statements = new ArrayList<>();
+        // feed the script character by character, so that every boundary spans two chunks
+        for (int i = 0; i < script.length(); i++) {
+            if (splitter.findEnd(script, i, i + 1) >= 0) {
+                statements.add(script.substring((int) splitter.getStatementBegin(),
+                        (int) splitter.getStatementEnd()));
+            }
+        }
+        if (splitter.finish()) {
+            statements.add(script.substring((int) splitter.getStatementBegin(),
+                    (int) splitter.getStatementEnd()));
+        }
+        assertEquals(Arrays.asList("SELECT 'x;y' FROM t", "\nBEGIN SELECT 1; END", "\n/* ; */SELECT 2"),
+                statements);
+        assertEquals(script.length(), splitter.getPosition());
+        assertFalse(splitter.isNested());
+    }
+
+    @Test
+    public void testChunksWithinLiteralsAndComments() {
+        String script = "SELECT 'a\\';b\\\\' -- ;\n FROM t; SELECT $$;**$$ /* *; */ FROM \"u;\"\"v\"; SELECT 3";
+        FeatureConfiguration configuration =
+                new FeatureConfiguration().setValue(Feature.allowBackslashEscapeCharacter, true);
+        StatementSplitter splitter = new StatementSplitter(configuration);
+        List<String> statements = new ArrayList<>();
+        for (int i = 0; i < script.length(); i++) {
+            if (splitter.findEnd(script, i, i + 1) >= 0) {
+                statements.add(script.substring((int) splitter.getStatementBegin(),
+                        (int) splitter.getStatementEnd()).trim());
+            }
+        }
+        if (splitter.finish()) {
+            statements.add(script.substring((int) splitter.getStatementBegin(),
+                    (int) splitter.getStatementEnd()).trim());
+        }
+        List<String> expected = new ArrayList<>();
+        int[] ranges = StatementSplitter.split(script, configuration);
+        for (int i = 0; i < ranges.length; i += 2) {
+            expected.add(script.substring(ranges[i], ranges[i + 1]));
+        }
+        assertEquals(3, expected.size());
+        assertEquals(expected, statements);
+    }
+}
@@ -0,0 +1,170 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.parser.feature.Feature;
+import net.sf.jsqlparser.parser.feature.FeatureConfiguration;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.select.OrderByElement;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.simpleparsing.CCJSqlParserManagerTest;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StatementCacheTest {
+
+    @Test
+    public void testHitReturnsIndependentCopy() throws JSQLParserException {
+        StatementCache cache = new StatementCache();
+        Statement first = cache.parse("SELECT a FROM mytable");
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        PlainSelect second = (PlainSelect) cache.parse("SELECT a FROM mytable");
+        assertNotSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        second.setFromItem(new Table("othertable"));
+
+        assertEquals("SELECT a FROM mytable", cache.parse("SELECT a FROM mytable").toString());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testHitKeepsSourceSpans() throws JSQLParserException {
+        StatementCache cache = new StatementCache();
+        cache.parse("SELECT a FROM mytable WHERE b = 'x'");
+        PlainSelect select = (PlainSelect) cache.parse("SELECT a FROM mytable WHERE b = 'x'");
+        assertEquals(1, cache.getHitCount());
+        assertEquals("mytable", ((Table) select.getFromItem()).getSourceText());
+        assertEquals(14, ((Table) select.getFromItem()).getSourceBegin());
+        assertNull(select.getASTNode());
+    }
+
+    @Test
+    public void testHitCopiesLazySubqueriesUnparsed() throws JSQLParserException {
+        StatementCache cache = new StatementCache();
+        FeatureConfiguration configuration = new FeatureConfiguration().setValue(Feature.lazySubqueries, true);
+        cache.parse("SELECT * FROM (SELECT a FROM t1) x", configuration);
+        PlainSelect select = (PlainSelect) cache.parse("SELECT * FROM (SELECT a FROM t1) x", configuration);
+        assertEquals(1, cache.getHitCount());
+        ParenthesedSelect subquery = (ParenthesedSelect) select.getFromItem();
+        assertFalse(subquery.isMaterialized());
+        assertEquals("SELECT a FROM t1", subquery.getSelect().toString());
+    }
+
+    @Test
+    public void testCopyKeepsCollectionTypes() throws Exception {
+        PlainSelect select = (PlainSelect) CCJSqlParserUtil.parse("SELECT a, b FROM mytable");
+        select.setSelectItems(Collections.unmodifiableList(new ArrayList<>(select.getSelectItems())));
+        select.setOrderByElements(Arrays.asList(new OrderByElement().withExpression(new Column("a"))));
+
+        PlainSelect copy = new TreeCopier().copy(select);
+        assertNotSame(select.getSelectItems(), copy.getSelectItems());
+        assertEquals(select.getSelectItems().getClass(), copy.getSelectItems().getClass());
+        assertEquals(select.getOrderByElements().getClass(), copy.getOrderByElements().getClass());
+        assertEquals(select.toString(), copy.toString());
+    }
+
+    @Test
+    public void testConfigurationIsPartOfTheKey() throws JSQLParserException {
+        StatementCache cache = new StatementCache();
+        FeatureConfiguration configuration = new FeatureConfiguration();
+        cache.parse("SELECT [a] FROM mytable", configuration.setValue(Feature.allowSquareBracketQuotation, true));
+        assertEquals(1, cache.getMissCount());
+
+        // changing the configuration later does not corrupt the cached key
+        configuration.setValue(Feature.allowSquareBracketQuotation, false);
+        cache.parse("SELECT [a] FROM mytable", parser -> parser.withSquareBracketQuotation(true));
+        assertEquals(1, cache.getHitCount());
+
+        assertThrows(JSQLParserException.class, () -> cache.parse("SELECT [a] FROM mytable", configuration));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws JSQLParserException {
+        StatementCache cache = new StatementCache(2, Long.MAX_VALUE);
+        cache.parse("SELECT 1");
+        cache.parse("SELECT 2");
+        cache.parse("SELECT 1");
+        cache.parse("SELECT 3");
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+
+        cache.parse("SELECT 1");
+        assertEquals(2, cache.getHitCount());
+        cache.parse("SELECT 2");
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testFirstInFirstOutEviction() throws JSQLParserException {
+        StatementCache cache = new StatementCache(2, Long.MAX_VALUE, EvictionPolicy.firstInFirstOut());
+        cache.parse("SELECT 1");
+        cache.parse("SELECT 2");
+        cache.parse("SELECT 1");
+        cache.parse("SELECT 3");
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.parse("SELECT 1");
+        assertEquals(1, cache.getHitCount());
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void testWeightBound() throws JSQLParserException {
+        StatementCache unbounded = new StatementCache();
+        unbounded.parse("SELECT 1");
+        long weight = unbounded.getWeight();
+        assertTrue(weight > 0);
+
+        StatementCache cache = new StatementCache(100, weight * 2);
+        cache.parse("SELECT 1");
+        cache.parse("SELECT 2");
+        cache.parse("SELECT 3");
+        assertEquals(2, cache.size());
+        assertTrue(cache.getWeight() <= weight * 2);
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test
+    public void testCachedCopiesOfSimpleParsingCorpus() throws Exception {
+        StatementCache cache = new StatementCache();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                StatementCacheTest.class.getResourceAsStream("/simple_parsing.txt")))) {
+            String sql;
+            while ((sql = CCJSqlParserManagerTest.getStatement(in)) != null) {
+                String expected = cache.parse(sql).toString();
+                assertEquals(expected, cache.parse(sql).toString());
+            }
+        }
+        assertTrue(cache.getHitCount() >= cache.getMissCount());
+    }
+}
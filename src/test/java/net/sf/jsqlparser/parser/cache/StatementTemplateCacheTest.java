@@ -0,0 +1,133 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.LongValue;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.relational.EqualsTo;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.simpleparsing.CCJSqlParserManagerTest;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StatementTemplateCacheTest {
+
+    @Test
+    public void testLiteralsAreRebound() throws JSQLParserException {
+        StatementTemplateCache cache = new StatementTemplateCache();
+        assertEquals("SELECT * FROM mytable WHERE id = 17 AND name = 'a' AND price > 1.5",
+                cache.parse("SELECT * FROM mytable WHERE id = 17 AND name = 'a' AND price > 1.5").toString());
+        assertEquals(1, cache.getMissCount());
+
+        PlainSelect select = (PlainSelect) cache.parse("SELECT * FROM mytable WHERE id = 42 AND name = N'b' AND price > 2.25");
+        assertEquals(1, cache.getHitCount());
+        assertEquals(0, cache.getFallbackCount());
+        assertEquals("SELECT * FROM mytable WHERE id = 42 AND name = N'b' AND price > 2.25", select.toString());
+
+        // the rebound copy is independent of the cached template
+        select.setWhere(new EqualsTo(new LongValue(1), new LongValue(2)));
+        assertEquals("SELECT * FROM mytable WHERE id = 3 AND name = 'c' AND price > 0.5",
+                cache.parse("SELECT * FROM mytable WHERE id = 3 AND name = 'c' AND price > 0.5").toString());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testSourceSpansReferToTheBoundStatement() throws JSQLParserException {
+        StatementTemplateCache cache = new StatementTemplateCache();
+        cache.parse("SELECT a FROM t WHERE id = 17 AND name = 'x'");
+        PlainSelect select = (PlainSelect) cache.parse("SELECT a FROM t WHERE id = 123456 AND name = 'longer'");
+        assertEquals(1, cache.getHitCount());
+        assertEquals("SELECT a FROM t WHERE id = 123456 AND name = 'longer'", select.getSourceText());
+
+        AndExpression where = (AndExpression) select.getWhere();
+        assertEquals("id = 123456", where.getLeftExpression().getSourceText());
+        assertEquals("name = 'longer'", where.getRightExpression().getSourceText());
+        assertEquals("t", ((Table) select.getFromItem()).getSourceText());
+    }
+
+    @Test
+    public void testFixedLiteralsFallBack() throws JSQLParserException {
+        StatementTemplateCache cache = new StatementTemplateCache();
+        cache.parse("SELECT CAST(a AS VARCHAR(10)) FROM mytable WHERE id = 1");
+        assertEquals("SELECT CAST(a AS VARCHAR (10)) FROM mytable WHERE id = 2",
+                cache.parse("SELECT CAST(a AS VARCHAR(10)) FROM mytable WHERE id = 2").toString());
+        assertEquals(0, cache.getFallbackCount());
+
+        assertEquals("SELECT CAST(a AS VARCHAR (20)) FROM mytable WHERE id = 3",
+                cache.parse("SELECT CAST(a AS VARCHAR(20)) FROM mytable WHERE id = 3").toString());
+        assertEquals(1, cache.getFallbackCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testInvalidStatementIsNotCached() {
+        StatementTemplateCache cache = new StatementTemplateCache();
+        assertThrows(JSQLParserException.class, () -> cache.parse("SELECT * FROM WHERE id = 1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testUnbindableShapeIsNotCached() throws JSQLParserException {
+        StatementTemplateCache cache = new StatementTemplateCache();
+        assertEquals("SELECT {d '2020-01-01'} FROM t", cache.parse("SELECT {d '2020-01-01'} FROM t").toString());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMissCount());
+
+        assertEquals("SELECT {d '2021-02-03'} FROM t", cache.parse("SELECT {d '2021-02-03'} FROM t").toString());
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getFallbackCount());
+    }
+
+    @Test
+    public void testConcurrentMissesBuildOneTemplate() throws Exception {
+        StatementTemplateCache cache = new StatementTemplateCache();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String sql = "SELECT a FROM t WHERE id = " + i;
+                results.add(executor.submit(() -> cache.parse(sql).toString()));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("SELECT a FROM t WHERE id = " + i, results.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getFallbackCount());
+    }
+
+    @Test
+    public void testSimpleParsingCorpus() throws Exception {
+        StatementTemplateCache cache = new StatementTemplateCache();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                StatementTemplateCacheTest.class.getResourceAsStream("/simple_parsing.txt")))) {
+            String sql;
+            while ((sql = CCJSqlParserManagerTest.getStatement(in)) != null) {
+                String expected = CCJSqlParserUtil.parse(sql).toString();
+                assertEquals(expected, cache.parse(sql).toString());
+                assertEquals(expected, cache.parse(sql).toString());
+            }
+        }
+    }
+}
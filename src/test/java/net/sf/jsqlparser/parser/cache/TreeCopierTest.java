@@ -0,0 +1,106 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.cache;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.JsonKeyValuePair;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.statement.Statement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TreeCopierTest {
+
+    private static final String[] MODEL_PACKAGES = {"net/sf/jsqlparser/expression",
+        "net/sf/jsqlparser/schema", "net/sf/jsqlparser/statement"};
+
+    // their constructors reject the simplest values of interface types, so the statements holding
+    // them are not cached
+    private static final List<String> KNOWN_UNCOPYABLE = Arrays.asList(
+            "net.sf.jsqlparser.expression.JsonFunctionExpression",
+            "net.sf.jsqlparser.expression.OracleNamedFunctionParameter",
+            "net.sf.jsqlparser.statement.IfElseStatement");
+
+    @Test
+    public void testEveryModelClassIsCopyable() throws Exception {
+        List<String> uncopyable = new ArrayList<>();
+        int checked = 0;
+        for (Class<?> type : modelClasses()) {
+            try {
+                TreeCopier.checkCopyable(type);
+                checked++;
+            } catch (TreeCopier.UncopyableException ex) {
+                uncopyable.add(type.getName());
+            }
+        }
+        assertEquals(KNOWN_UNCOPYABLE, uncopyable);
+        assertTrue(checked > 200, "only " + checked + " model classes found");
+    }
+
+    @Test
+    public void testCopyIsEqualAndIndependent() throws JSQLParserException, TreeCopier.UncopyableException {
+        Statement statement = CCJSqlParserUtil.parse(
+                "SELECT a, b FROM t JOIN u ON t.id = u.id WHERE a IN (1, 2) ORDER BY b DESC LIMIT 3");
+        Statement copy = new TreeCopier().copy(statement);
+        assertNotSame(statement, copy);
+        assertEquals(statement.toString(), copy.toString());
+    }
+
+    @Test
+    public void testForeignClassesAreNotCopied() {
+        assertThrows(TreeCopier.UncopyableException.class, () -> TreeCopier.checkCopyable(Namespace.class));
+        assertThrows(TreeCopier.UncopyableException.class,
+                () -> new TreeCopier().copy(new JsonKeyValuePair("key", Namespace.GLOBAL, false, false)));
+    }
+
+    /**
+     * @return the concrete classes of the parsed statements
+     */
+    private static List<Class<?>> modelClasses() throws IOException, URISyntaxException, ClassNotFoundException {
+        List<Class<?>> classes = new ArrayList<>();
+        Path root = Paths.get(Statement.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        for (String modelPackage : MODEL_PACKAGES) {
+            List<Path> files;
+            try (Stream<Path> paths = Files.walk(root.resolve(modelPackage))) {
+                files = paths.filter(path -> path.toString().endsWith(".class")).sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String name = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), ".");
+                Class<?> type = Class.forName(name.substring(0, name.length() - ".class".length()));
+                if (isModelClass(type)) {
+                    classes.add(type);
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static boolean isModelClass(Class<?> type) {
+        return !type.isInterface() && !type.isEnum() && !type.isAnonymousClass() && !type.isSynthetic()
+                && !Modifier.isAbstract(type.getModifiers()) && Modifier.isPublic(type.getModifiers())
+                && !Throwable.class.isAssignableFrom(type) && !type.getSimpleName().endsWith("Adapter");
+    }
+}
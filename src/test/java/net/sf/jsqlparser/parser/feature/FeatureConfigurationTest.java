@@ -9,8 +9,12 @@
  */
 package net.sf.jsqlparser.parser.feature;
 
+import net.sf.jsqlparser.parser.AbstractJSqlParser;
+import net.sf.jsqlparser.parser.CCJSqlParser;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
 import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class FeatureConfigurationTest {
 
@@ -21,4 +25,82 @@ public class FeatureConfigurationTest {
         Long timeOut = featureConfiguration.getAsLong(Feature.timeOut);
         assertThat(timeOut).isEqualTo(123L);
     }
+
+    @Test
+    public void getAsLongOfDefault() {
+        assertThat(new FeatureConfiguration().getAsLong(Feature.timeOut)).isEqualTo(8000L);
+        assertThat(new FeatureConfiguration().setValue(Feature.timeOut, "42").getAsLong(Feature.timeOut))
+                .isEqualTo(42L);
+    }
+
+    @Test
+    public void equalNumbersOfDifferentTypes() {
+        FeatureConfiguration configuration = new FeatureConfiguration().setValue(Feature.timeOut, 8000L);
+        assertThat(configuration).isEqualTo(FeatureConfiguration.DEFAULT)
+                .hasSameHashCodeAs(FeatureConfiguration.DEFAULT);
+        assertThat(new FeatureConfiguration().setValue(Feature.timeOut, 5))
+                .isEqualTo(new FeatureConfiguration().setValue(Feature.timeOut, 5L));
+    }
+
+    @Test
+    public void copyOnWrite() {
+        FeatureConfiguration configuration = new FeatureConfiguration();
+        FeatureConfiguration copy = new FeatureConfiguration(configuration);
+        assertThat(copy).isEqualTo(configuration).isEqualTo(FeatureConfiguration.DEFAULT);
+
+        copy.setValue(Feature.allowSquareBracketQuotation, true);
+        assertThat(copy.getAsBoolean(Feature.allowSquareBracketQuotation)).isTrue();
+        assertThat(configuration.getAsBoolean(Feature.allowSquareBracketQuotation)).isFalse();
+        assertThat(new FeatureConfiguration().getAsBoolean(Feature.allowSquareBracketQuotation)).isFalse();
+
+        FeatureConfiguration snapshot = copy.toImmutable();
+        copy.setValue(Feature.allowSquareBracketQuotation, false);
+        assertThat(snapshot.getAsBoolean(Feature.allowSquareBracketQuotation)).isTrue();
+        assertThat(snapshot).isEqualTo(FeatureConfiguration.SQLSERVER);
+    }
+
+    @Test
+    public void immutablePresets() {
+        assertThat(FeatureConfiguration.DEFAULT.isImmutable()).isTrue();
+        assertThat(FeatureConfiguration.MYSQL.getAsBoolean(Feature.allowBackslashEscapeCharacter)).isTrue();
+        assertThat(FeatureConfiguration.POSTGRESQL.getAsBoolean(Feature.allowPostgresSpecificSyntax)).isTrue();
+        assertThat(FeatureConfiguration.DEFAULT.getAsBoolean(Feature.allowBackslashEscapeCharacter)).isFalse();
+        assertThatThrownBy(() -> FeatureConfiguration.DEFAULT.setValue(Feature.timeOut, 1L))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(new FeatureConfiguration(FeatureConfiguration.DEFAULT).isImmutable()).isFalse();
+    }
+
+    @Test
+    public void parserCopiesPresetOnChange() throws Exception {
+        CCJSqlParser parser = CCJSqlParserUtil.newParser("SELECT [a] FROM t")
+                .withConfiguration(FeatureConfiguration.DEFAULT)
+                .withSquareBracketQuotation(true);
+        assertThat(parser.getConfiguration()).isNotSameAs(FeatureConfiguration.DEFAULT);
+        assertThat(FeatureConfiguration.DEFAULT.getAsBoolean(Feature.allowSquareBracketQuotation)).isFalse();
+        assertThat(parser.Statement().toString()).isEqualTo("SELECT [a] FROM t");
+
+        assertThat(CCJSqlParserUtil.parse("SELECT [a] FROM t",
+                p -> p.withConfiguration(FeatureConfiguration.SQLSERVER)).toString())
+                .isEqualTo("SELECT [a] FROM t");
+    }
+
+    @Test
+    public void subclassWithOwnConfiguration() {
+        class OwnParser extends AbstractJSqlParser<OwnParser> {
+            private final FeatureConfiguration configuration = new FeatureConfiguration();
+
+            @Override
+            public FeatureConfiguration getConfiguration() {
+                return configuration;
+            }
+
+            @Override
+            public OwnParser me() {
+                return this;
+            }
+        }
+        OwnParser parser = new OwnParser().withConfiguration(FeatureConfiguration.MYSQL);
+        assertThat(parser.getConfiguration()).isEqualTo(FeatureConfiguration.MYSQL)
+                .isNotSameAs(FeatureConfiguration.MYSQL);
+    }
 }
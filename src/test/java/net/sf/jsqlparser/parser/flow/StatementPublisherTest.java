@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * JSQLParser library
+ * %%
+ * Copyright (C) 2004 - 2023 JSQLParser
+ * %%
+ * Dual licensed under GNU LGPL 2.1 or Apache License 2.0
+ * #L%
+ */
+package net.sf.jsqlparser.parser.flow;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import net.sf.jsqlparser.parser.ParsedStatement;
+import net.sf.jsqlparser.parser.StatementSpliterator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StatementPublisherTest {
+
+    private static final Object COMPLETE = new Object();
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Records all signals and requests the statements one at a time, when told to.
+     */
+    private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+
+        final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+
+        volatile Flow.Subscription subscription;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            signals.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signals.add(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            signals.add(COMPLETE);
+        }
+
+        Object next() throws InterruptedException {
+            subscription.request(1);
+            return signals.poll(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testPublishOnDemand() throws InterruptedException {
+        String script = "SELECT 1; SELECT FROM WHERE; SELECT 3";
+        RecordingSubscriber<ParsedStatement> subscriber = new RecordingSubscriber<>();
+        new StatementPublisher(new StatementSpliterator(new StringReader(script), null), executor)
+                .subscribe(subscriber);
+
+        assertEquals("SELECT 1", ((ParsedStatement) subscriber.next()).getStatement().toString());
+        // nothing is published without demand
+        assertNull(subscriber.signals.poll(100, TimeUnit.MILLISECONDS));
+        // a statement which can't be parsed does not end the stream
+        assertFalse(((ParsedStatement) subscriber.next()).isParsed());
+        assertEquals("SELECT 3", ((ParsedStatement) subscriber.next()).getStatement().toString());
+        assertEquals(COMPLETE, subscriber.next());
+    }
+
+    @Test
+    public void testSingleSubscriber() throws InterruptedException {
+        StatementPublisher publisher = new StatementPublisher(new StringReader("SELECT 1"), null);
+        publisher.subscribe(new RecordingSubscriber<>());
+        RecordingSubscriber<ParsedStatement> second = new RecordingSubscriber<>();
+        publisher.subscribe(second);
+        assertTrue(second.signals.poll(10, TimeUnit.SECONDS) instanceof IllegalStateException);
+    }
+
+    @Test
+    public void testProcessorWithBackpressure() throws InterruptedException {
+        List<String> texts = Arrays.asList("SELECT a FROM t1", "UPDATE t2 SET b = 1; DELETE FROM t3", "NOT SQL");
+        AtomicLong upstreamRequested = new AtomicLong();
+        Flow.Publisher<String> upstream = subscriber -> {
+            Iterator<String> iterator = texts.iterator();
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    upstreamRequested.addAndGet(n);
+                    for (long i = 0; i < n; i++) {
+                        if (iterator.hasNext()) {
+                            subscriber.onNext(iterator.next());
+                        } else {
+                            subscriber.onComplete();
+                            return;
+                        }
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    // nothing to release
+                }
+            });
+        };
+        StatementProcessor processor = new StatementProcessor(executor, null);
+        upstream.subscribe(processor);
+        RecordingSubscriber<ParsedStatement> subscriber = new RecordingSubscriber<>();
+        processor.subscribe(subscriber);
+
+        assertEquals("SELECT a FROM t1", ((ParsedStatement) subscriber.next()).getSql());
+        assertEquals(1, upstreamRequested.get());
+        assertEquals("UPDATE t2 SET b = 1", ((ParsedStatement) subscriber.next()).getSql());
+        assertEquals("DELETE FROM t3", ((ParsedStatement) subscriber.next()).getSql());
+        assertEquals(2, upstreamRequested.get());
+        assertFalse(((ParsedStatement) subscriber.next()).isParsed());
+        assertEquals(COMPLETE, subscriber.next());
+    }
+}
@@ -77,13 +77,19 @@ public class NestedBracketsPerformanceTest {
         assertEquals("IF(1=1, IF(1=1, IF(1=1, 1, 2), 2), 2)", buildRecursiveBracketExpression("IF(1=1, $1, 2)", "1", 2));
     }
 
-    // maxDepth = 10 collides with the Parser Timeout = 6 seconds
-    // temporarily restrict it to maxDepth = 4 for the moment
-    // @todo: implement methods to set the Parser Timeout explicitly and on demand
-    // @todo Investigate performance deterioration since JSQLParser 5.0pre development
     @Test
     public void testRecursiveBracketExpressionIssue1019_2() throws JSQLParserException {
-        doIncreaseOfParseTimeTesting("IF(1=1, $1, 2)", "1", 4);
+        doIncreaseOfParseTimeTesting("IF(1=1, $1, 2)", "1", 10);
+    }
+
+    @Test
+    @Timeout(2000)
+    public void testDeeplyNestedConditions() throws JSQLParserException {
+        String condition = "a = 1";
+        for (int i = 0; i < 30; i++) {
+            condition = "(" + condition + " OR b IN (SELECT c FROM u WHERE (d > " + i + "))) AND e = " + i;
+        }
+        assertSqlCanBeParsedAndDeparsed("SELECT a FROM t WHERE " + condition);
     }
 
     @Test
@@ -12,16 +12,20 @@ package net.sf.jsqlparser.statement.select;
 import java.util.ArrayList;
 import java.util.List;
 import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
 import net.sf.jsqlparser.parser.CCJSqlParserDefaultVisitor;
 import net.sf.jsqlparser.parser.CCJSqlParserTreeConstants;
 import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.parser.ParserPool;
 import net.sf.jsqlparser.parser.SimpleNode;
 import net.sf.jsqlparser.parser.Token;
 import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
 import static net.sf.jsqlparser.test.TestUtils.assertSqlCanBeParsedAndDeparsed;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -195,4 +199,53 @@ public class SelectASTTest {
         SimpleNode root = (SimpleNode) CCJSqlParserUtil.parseAST(sql);
         assertThat(root.jjtGetFirstToken().specialToken.image).isEqualTo("/* I want this comment */");
     }
+
+    @Test
+    public void testSelectWithoutLinkedASTNodes() throws JSQLParserException {
+        String sql = "SELECT a, b FROM mytable WHERE c IN (SELECT d FROM mytable2) ORDER BY b";
+        PlainSelect plainSelect = (PlainSelect) CCJSqlParserUtil.parse(sql,
+                parser -> parser.withLinkASTNodes(false));
+        assertEquals(sql, plainSelect.toString());
+        assertNull(plainSelect.getASTNode());
+        assertNull(plainSelect.getSelectItem(0).getExpression().getASTNode());
+        assertNull(plainSelect.getFromItem(Table.class).getASTNode());
+    }
+
+    @Test
+    public void testLinkASTNodesWithPooledParser() throws JSQLParserException {
+        String sql = "SELECT a FROM mytable";
+        ParserPool.clear();
+        PlainSelect linked = (PlainSelect) CCJSqlParserUtil.parse(sql);
+        PlainSelect unlinked = (PlainSelect) CCJSqlParserUtil.parse(sql, parser -> parser.withLinkASTNodes(false));
+        PlainSelect linkedAgain = (PlainSelect) CCJSqlParserUtil.parse(sql);
+
+        assertNotNull(linked.getASTNode());
+        assertNull(unlinked.getASTNode());
+        assertNull(unlinked.getFromItem(Table.class).getASTNode());
+        assertEquals("mytable", unlinked.getFromItem(Table.class).getSourceText());
+        assertNotNull(linkedAgain.getASTNode());
+        assertEquals("SELECT", linkedAgain.getASTNode().jjtGetFirstToken().image);
+    }
+
+    @Test
+    public void testSelectSourceSpans() throws JSQLParserException {
+        String sql = "SELECT  a,  b /* comment */ FROM  myschema . mytable  WHERE c IN ( SELECT d FROM mytable2 )";
+        for (boolean linkASTNodes : new boolean[] {true, false}) {
+            PlainSelect plainSelect = (PlainSelect) CCJSqlParserUtil.parse(sql,
+                    parser -> parser.withLinkASTNodes(linkASTNodes));
+            assertEquals(sql, plainSelect.getSourceText());
+            assertEquals("a", plainSelect.getSelectItem(0).getSourceText());
+            assertEquals("myschema . mytable", plainSelect.getFromItem(Table.class).getSourceText());
+
+            Column column = plainSelect.getSelectItem(1).getExpression(Column.class);
+            assertEquals(12, column.getSourceBegin());
+            assertEquals(13, column.getSourceEnd());
+
+            InExpression inExpression = (InExpression) plainSelect.getWhere();
+            assertEquals("c IN ( SELECT d FROM mytable2 )", inExpression.getSourceText());
+            assertEquals("( SELECT d FROM mytable2 )", ((ParenthesedSelect) inExpression.getRightExpression()).getSourceText());
+        }
+        assertNull(new Column("a").getSourceText());
+        assertEquals(-1, new Column("a").getSourceBegin());
+    }
 }
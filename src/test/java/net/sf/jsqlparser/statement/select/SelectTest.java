@@ -171,7 +171,7 @@ public class SelectTest {
 
             @Override
             public void execute() throws Throwable {
-                parseStatementFromString();
+                parserManager.parse(new StringReader(statement));
             }
         });
     }
@@ -192,7 +192,7 @@ public class SelectTest {
 
             @Override
             public void execute() throws Throwable {
-                parseStatementFromString();
+                parserManager.parse(new StringReader(statement));
             }
         });
     }
@@ -3665,7 +3665,7 @@ public class SelectTest {
 
             @Override
             public void visit(PlainSelect plainSelect) {
-                addAllSelectItems(plainSelect);
+                list.addAll(plainSelect.getSelectItems());
             }
         });
         assertEquals(1, list.size());
@@ -3691,7 +3691,7 @@ public class SelectTest {
 
             @Override
             public void visit(PlainSelect plainSelect) {
-                addAllSelectItems(plainSelect);
+                list.addAll(plainSelect.getSelectItems());
             }
         });
         assertEquals(1, list.size());
@@ -4723,15 +4723,8 @@ public class SelectTest {
         assertSqlCanBeParsedAndDeparsed(stmt);
     }
 
-    private void parseStatementFromString() throws Throwable {
-        parserManager.parse(new StringReader(statement));
-    }
-
     private void assertBackslashEscapeCharacter(String sqlStr) throws JSQLParserException {
         TestUtils.assertSqlCanBeParsedAndDeparsed(sqlStr, true, parser -> parser.withBackslashEscapeCharacter(true));
     }
 
-    private void addAllSelectItems(PlainSelect plainSelect) {
-        list.addAll(plainSelect.getSelectItems());
-    }
 }